@@ -8,5 +8,8 @@ public record HeatmapPointDTO(
         Double longitude,
         @JsonProperty("current_avg_price") Double currentAvgPrice,
         @JsonProperty("trend_status") String trendStatus,
-        @JsonProperty("trend_description") String trendDescription
+        @JsonProperty("trend_description") String trendDescription,
+        // Only filled by the local heatmap engine
+        @JsonProperty("listing_count") Integer listingCount,
+        @JsonProperty("median_price") Double medianPrice
 ) {}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.lsiproject.app.propertymanagementmicroservice.DTOs;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * @param items The page content.
+ * @param nextCursor Opaque cursor of the next page, null on the last page.
+ * @param totalCount Total number of matches when it was requested, null otherwise.
+ */
+public record KeysetPage<T>(
+        List<T> items,
+        String nextCursor,
+        Long totalCount
+) {}
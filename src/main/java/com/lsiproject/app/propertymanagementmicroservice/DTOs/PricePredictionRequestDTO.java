@@ -1,6 +1,7 @@
 package com.lsiproject.app.propertymanagementmicroservice.DTOs;
 
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -11,6 +12,7 @@ import lombok.Setter;
  */
 @Getter
 @Setter
+@EqualsAndHashCode // identical concurrent requests are coalesced (FeignSingleFlight)
 @AllArgsConstructor
 @NoArgsConstructor
 public class PricePredictionRequestDTO {
@@ -1,6 +1,7 @@
 package com.lsiproject.app.propertymanagementmicroservice.DTOs;
 
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -9,6 +10,7 @@ import java.math.BigDecimal;
 
 
 @ToString
+@EqualsAndHashCode // used as the recommendation cache key
 @Getter
 @Setter
 @AllArgsConstructor
@@ -2,10 +2,14 @@ package com.lsiproject.app.propertymanagementmicroservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "com.lsiproject.app.propertymanagementmicroservice.openFeignClients")
+@EnableScheduling
+@EnableCaching
 public class PropertyManagementMicroserviceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,12 @@
+package com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch availability update: the properties that switched state, and those
+ * that were already in the requested state or do not exist.
+ */
+public record AvailabilityBatchResponseDTO(
+        List<Long> changed,
+        List<Long> unchanged
+) {}
@@ -0,0 +1,12 @@
+package com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a batch price suggestion: the predictions obtained, by property ID, and the properties left without one.
+ */
+public record PricePredictionBatchResponseDTO(
+        Map<Long, PricePredictionResponseDTO> predictions,
+        List<Long> failedIds
+) {}
@@ -0,0 +1,11 @@
+package com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs;
+
+import java.util.List;
+
+/**
+ * Result of a bulk lookup: the properties found, in request order, and the requested IDs that do not exist.
+ */
+public record PropertyBulkResponseDTO(
+        List<PropertyResponseDTO> properties,
+        List<Long> missingIds
+) {}
@@ -0,0 +1,6 @@
+package com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs;
+
+public record PropertyDistanceResponseDTO(
+        PropertyResponseDTO property,
+        Double distanceInKm
+) {}
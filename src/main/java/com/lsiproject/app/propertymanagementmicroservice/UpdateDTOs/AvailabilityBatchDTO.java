@@ -0,0 +1,13 @@
+package com.lsiproject.app.propertymanagementmicroservice.UpdateDTOs;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * DTO for setting the availability of several properties at once.
+ */
+public record AvailabilityBatchDTO(
+        @NotEmpty List<Long> propertyIds,
+        boolean isAvailable
+) {}
@@ -0,0 +1,76 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Room;
+import com.lsiproject.app.propertymanagementmicroservice.entities.RoomImage;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level and query cache, held in Caffeine through JCache.
+ * The same JCache manager backs the Spring cache abstraction, so every region is
+ * exported to the Prometheus registry (cache.gets, cache.puts, cache.evictions...).
+ * Entity writes going through Hibernate (including bulk JPQL updates) invalidate the regions themselves.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String ROOMS_BY_PROPERTY_REGION = "rooms-by-property";
+    public static final String IMAGES_BY_ROOM_REGION = "room-images-by-room";
+
+    @Bean
+    public JCacheManagerCustomizer secondLevelCacheRegions(
+            @Value("${property.cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${property.cache.entity.ttl:10m}") Duration entityTtl,
+            @Value("${property.cache.query.max-size:5000}") long queryMaxSize,
+            @Value("${property.cache.query.ttl:5m}") Duration queryTtl
+    ) {
+        return cacheManager -> {
+            createRegion(cacheManager, Property.class.getName(), OptionalLong.of(entityMaxSize), entityTtl);
+            createRegion(cacheManager, Room.class.getName(), OptionalLong.of(entityMaxSize), entityTtl);
+            createRegion(cacheManager, RoomImage.class.getName(), OptionalLong.of(entityMaxSize), entityTtl);
+
+            createRegion(cacheManager, ROOMS_BY_PROPERTY_REGION, OptionalLong.of(queryMaxSize), queryTtl);
+            createRegion(cacheManager, IMAGES_BY_ROOM_REGION, OptionalLong.of(queryMaxSize), queryTtl);
+            createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                    OptionalLong.of(queryMaxSize), queryTtl);
+
+            // One entry per table; must outlive every cached query result, so never evicted
+            createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                    OptionalLong.empty(), null);
+        };
+    }
+
+    /**
+     * Hands the Spring-managed JCache manager to Hibernate instead of letting it open its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager(CacheManager cacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, OptionalLong maxSize, Duration ttl) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxSize);
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        // Hibernate already stores disassembled entries: skip the copy-on-read serialization
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -1,10 +1,25 @@
 package com.lsiproject.app.propertymanagementmicroservice.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.FeignLoggerFactory;
 import org.springframework.context.annotation.Bean;
 
 public class FeignConfig {
+    // FULL only makes calls eligible: SampledFeignLogger logs a sample of them, and every error
     @Bean
     feign.Logger.Level feignLoggerLevel() {
         return feign.Logger.Level.FULL;
     }
-}
\ No newline at end of file
+
+    // One SLF4J logger per client interface, like the default Feign logger factory
+    @Bean
+    FeignLoggerFactory feignLoggerFactory(@Value("${feign.logging.sample-rate:0.01}") double sampleRate) {
+        return clientType -> new SampledFeignLogger(clientType, sampleRate);
+    }
+
+    @Bean
+    feign.Capability feignMetricsCapability(MeterRegistry meterRegistry) {
+        return new FeignMetricsCapability(meterRegistry);
+    }
+}
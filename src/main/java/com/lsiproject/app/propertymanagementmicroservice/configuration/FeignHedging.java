@@ -0,0 +1,372 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import com.lsiproject.app.propertymanagementmicroservice.utils.ThreadFactories;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hedged requests for the idempotent Feign methods: GET mappings and methods marked {@link Idempotent}.
+ * The first attempt runs on a hedging thread while the caller waits. When it has not answered after the configured
+ * latency percentile of its recent calls, a second identical attempt goes out, and the caller returns the first
+ * successful answer. Both attempts carry the caller's request and security context. The losing attempt is
+ * abandoned: interrupted, and its failure, if any, is not counted by the circuit breaker ({@link FeignResilience}).
+ * An interrupt does not end a blocking socket read on a platform thread, so the loser may keep its hedging thread
+ * until its read ends; the caller does not wait for it.
+ * Hedges are capped by a budget (a fraction of the calls) and take the separate hedge bulkhead of
+ * {@link FeignResilience}. When every hedging thread is busy, calls run unhedged on the caller thread. Counted in
+ * feign.hedging.calls{client, method, outcome=not_hedged|primary_won|hedge_won|budget_exhausted}.
+ * Disabled unless feign.hedging.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "feign.hedging.enabled", havingValue = "true")
+public class FeignHedging implements BeanPostProcessor, Ordered {
+
+    private static final int WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final long TOKEN = 1000;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long budgetPerCall;
+    private final long maxTokens;
+    private final ThreadPoolExecutor executor;
+
+    public FeignHedging(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${feign.hedging.percentile:0.95}") double percentile,
+            @Value("${feign.hedging.min-delay:20ms}") Duration minDelay,
+            @Value("${feign.hedging.budget-ratio:0.1}") double budgetRatio,
+            @Value("${feign.hedging.max-threads:64}") int maxThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetPerCall = Math.round(budgetRatio * TOKEN);
+        // Unused budget accumulates up to a small burst of hedges
+        this.maxTokens = 10 * TOKEN;
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                ThreadFactories.named("feign-hedging-", virtualThreads));
+    }
+
+    // Between FeignResilience (innermost) and FeignSingleFlight (outermost)
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Class<?> client : ClassUtils.getAllInterfacesForClassAsSet(bean.getClass())) {
+            if (AnnotationUtils.findAnnotation(client, FeignClient.class) != null) {
+                return Proxy.newProxyInstance(client.getClassLoader(), new Class<?>[]{client},
+                        new HedgingHandler(bean, client.getSimpleName()));
+            }
+        }
+        return bean;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return Whether sending the call twice is harmless: GET (Feign's default), HEAD and OPTIONS
+     * mappings, and methods marked {@link Idempotent}.
+     */
+    static boolean isIdempotent(Method method) {
+        if (AnnotationUtils.findAnnotation(method, Idempotent.class) != null) {
+            return true;
+        }
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+        if (mapping == null) {
+            return false;
+        }
+        for (RequestMethod requestMethod : mapping.method()) {
+            if (requestMethod != RequestMethod.GET && requestMethod != RequestMethod.HEAD
+                    && requestMethod != RequestMethod.OPTIONS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class HedgingHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String clientName;
+        private final Map<Method, Boolean> idempotent = new ConcurrentHashMap<>();
+        private final Map<Method, LatencyWindow> latencies = new ConcurrentHashMap<>();
+        private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+        private final AtomicLong budget = new AtomicLong();
+
+        HedgingHandler(Object target, String clientName) {
+            this.target = target;
+            this.clientName = clientName;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class
+                    || !idempotent.computeIfAbsent(method, FeignHedging::isIdempotent)) {
+                return invokeTarget(method, args);
+            }
+            LatencyWindow window = latencies.computeIfAbsent(method, m -> new LatencyWindow());
+            budget.getAndUpdate(tokens -> Math.min(maxTokens, tokens + budgetPerCall));
+
+            long delayNanos = window.delayNanos();
+            if (delayNanos <= 0) {
+                // Not enough history yet to know what "slow" means
+                return timed(window, method, args);
+            }
+
+            HedgedCall call = new HedgedCall(window, method, args);
+            if (!call.start(false)) {
+                // Every hedging thread is busy
+                Object result = timed(window, method, args);
+                count(method, "not_hedged");
+                return result;
+            }
+            boolean hedged = false;
+            boolean budgetExhausted = false;
+            try {
+                Object result;
+                try {
+                    result = call.answer.get(delayNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException slow) {
+                    if (takeToken()) {
+                        hedged = call.start(true);
+                    } else {
+                        budgetExhausted = true;
+                    }
+                    result = call.answer.get();
+                }
+                count(method, hedged
+                        ? (call.hedgeWon ? "hedge_won" : "primary_won")
+                        : (budgetExhausted ? "budget_exhausted" : "not_hedged"));
+                return result;
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            } catch (InterruptedException e) {
+                call.abandon(null);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + clientName + "." + method.getName());
+            }
+        }
+
+        private Object timed(LatencyWindow window, Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            Object result = invokeTarget(method, args);
+            window.record(System.nanoTime() - start);
+            return result;
+        }
+
+        private boolean takeToken() {
+            while (true) {
+                long tokens = budget.get();
+                if (tokens < TOKEN) {
+                    return false;
+                }
+                if (budget.compareAndSet(tokens, tokens - TOKEN)) {
+                    return true;
+                }
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void count(Method method, String outcome) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return;
+            }
+            counters.computeIfAbsent(method.getName() + ':' + outcome, name -> Counter.builder("feign.hedging.calls")
+                    .description("Outbound Feign calls by hedging outcome")
+                    .tag("client", clientName)
+                    .tag("method", method.getName())
+                    .tag("outcome", outcome)
+                    .register(registry)
+            ).increment();
+        }
+
+        /**
+         * One call and its attempts. The first attempt that succeeds completes {@link #answer} and abandons
+         * the others; the answer fails once every attempt started has failed, with the first attempt's error.
+         */
+        private final class HedgedCall {
+            private final LatencyWindow window;
+            private final Method method;
+            private final Object[] args;
+            private final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            private final SecurityContext securityContext = SecurityContextHolder.getContext();
+            private final ReentrantLock lock = new ReentrantLock();
+            final CompletableFuture<Object> answer = new CompletableFuture<>();
+            // Guarded by the lock
+            private final List<FeignResilience.Attempt> attempts = new ArrayList<>(2);
+            private final List<Future<?>> tasks = new ArrayList<>(2);
+            private int running = 0;
+            private Throwable failure;
+            // Written before the answer completes, read by the caller once it has the answer
+            boolean hedgeWon = false;
+
+            HedgedCall(LatencyWindow window, Method method, Object[] args) {
+                this.window = window;
+                this.method = method;
+                this.args = args;
+            }
+
+            /**
+             * @return false if no attempt was started: the call is already answered or every hedging thread is busy.
+             */
+            boolean start(boolean hedge) {
+                FeignResilience.Attempt attempt = new FeignResilience.Attempt(hedge);
+                lock.lock();
+                try {
+                    if (answer.isDone()) {
+                        return false;
+                    }
+                    // The attempt cannot finish before it is registered: it needs the lock
+                    tasks.add(executor.submit(() -> run(attempt)));
+                    attempts.add(attempt);
+                    running++;
+                    return true;
+                } catch (RejectedExecutionException e) {
+                    return false;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            private void run(FeignResilience.Attempt attempt) {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                SecurityContextHolder.setContext(securityContext);
+                FeignResilience.ATTEMPT.set(attempt);
+                try {
+                    Object result = timed(window, method, args);
+                    lock.lock();
+                    try {
+                        if (!answer.isDone()) {
+                            hedgeWon = attempt.hedge;
+                            abandon(attempt);
+                            answer.complete(result);
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                } catch (Throwable e) {
+                    lock.lock();
+                    try {
+                        if (failure == null || !attempt.hedge) {
+                            failure = e;
+                        }
+                        if (--running == 0) {
+                            answer.completeExceptionally(failure);
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                } finally {
+                    FeignResilience.ATTEMPT.remove();
+                    SecurityContextHolder.clearContext();
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            }
+
+            /**
+             * Interrupts every attempt but the winner (all of them when null), flagged first so that
+             * the circuit breaker ignores the failure the interrupt may cause.
+             */
+            void abandon(FeignResilience.Attempt winner) {
+                lock.lock();
+                try {
+                    for (int i = 0; i < attempts.size(); i++) {
+                        if (attempts.get(i) != winner) {
+                            attempts.get(i).abandoned = true;
+                            tasks.get(i).cancel(true);
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Latencies of the last successful calls of one method; the hedge delay is recomputed every few samples.
+     */
+    private final class LatencyWindow {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] samples = new long[WINDOW];
+        private int next = 0;
+        private int size = 0;
+        private volatile long delayNanos = 0;
+
+        void record(long nanos) {
+            lock.lock();
+            try {
+                samples[next] = nanos;
+                next = (next + 1) % WINDOW;
+                size = Math.min(size + 1, WINDOW);
+                if (size >= MIN_SAMPLES && next % 16 == 0) {
+                    long[] sorted = Arrays.copyOf(samples, size);
+                    Arrays.sort(sorted);
+                    int index = Math.min(size - 1, (int) Math.ceil(percentile * size) - 1);
+                    delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long delayNanos() {
+            return delayNanos;
+        }
+    }
+}
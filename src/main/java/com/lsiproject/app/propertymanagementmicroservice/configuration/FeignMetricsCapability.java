@@ -0,0 +1,101 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every outbound Feign call in the meter registry, per client and method:
+ * - feign.client.requests: latency timer with a percentile histogram, tagged with the status
+ * - feign.client.request.size / feign.client.response.size: payload sizes in bytes, when known
+ * - feign.client.errors: error responses (status >= 400) and I/O failures
+ */
+public class FeignMetricsCapability implements Capability {
+
+    private final MeterRegistry meterRegistry;
+
+    public FeignMetricsCapability(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            String clientName = clientName(request);
+            String method = methodName(request);
+            if (request.body() != null) {
+                DistributionSummary.builder("feign.client.request.size")
+                        .baseUnit("bytes")
+                        .tag("client", clientName)
+                        .tag("method", method)
+                        .register(meterRegistry)
+                        .record(request.body().length);
+            }
+
+            long start = System.nanoTime();
+            String status = "IO_ERROR";
+            try {
+                Response response = client.execute(request, options);
+                status = String.valueOf(response.status());
+                if (response.body() != null && response.body().length() != null) {
+                    DistributionSummary.builder("feign.client.response.size")
+                            .baseUnit("bytes")
+                            .tag("client", clientName)
+                            .tag("method", method)
+                            .register(meterRegistry)
+                            .record(response.body().length());
+                }
+                if (response.status() >= 400) {
+                    countError(clientName, method, status);
+                }
+                return response;
+            } catch (IOException | RuntimeException e) {
+                countError(clientName, method, status);
+                throw e;
+            } finally {
+                Timer.builder("feign.client.requests")
+                        .publishPercentileHistogram()
+                        .tag("client", clientName)
+                        .tag("method", method)
+                        .tag("status", status)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    private void countError(String clientName, String method, String status) {
+        Counter.builder("feign.client.errors")
+                .tag("client", clientName)
+                .tag("method", method)
+                .tag("status", status)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String clientName(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        return "unknown";
+    }
+
+    // "PriceSuggestionClient#predictMonthlyPrice(PricePredictionRequestDTO)" -> "predictMonthlyPrice"
+    private static String methodName(Request request) {
+        if (request.requestTemplate() == null || request.requestTemplate().methodMetadata() == null) {
+            return "unknown";
+        }
+        String configKey = request.requestTemplate().methodMetadata().configKey();
+        int start = configKey.indexOf('#') + 1;
+        int end = configKey.indexOf('(', start);
+        return configKey.substring(start, (end >= 0) ? end : configKey.length());
+    }
+}
@@ -0,0 +1,136 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Puts every Feign client behind its own bulkhead and circuit breaker, named after the client
+ * interface (resilience4j.bulkhead/circuitbreaker.instances.&lt;ClientInterface&gt;).
+ * The bulkhead caps the request threads one slow model can hold and rejects the rest right away;
+ * the breaker opens on failures or slow calls, then lets a few probe calls through when half-open.
+ * Rejections surface as BulkheadFullException / CallNotPermittedException, handled by the callers' fallbacks.
+ * Connect/read timeouts are per client in spring.cloud.openfeign.client.config.
+ * Applied before {@link FeignSingleFlight}, so coalesced calls do not take a permit. Hedge attempts
+ * ({@link FeignHedging}) take a permit of a separate &lt;ClientInterface&gt;Hedge bulkhead instead, so they never
+ * use up the permits of first attempts; they share the circuit breaker. An attempt abandoned by the hedging
+ * releases its breaker permission without recording its failure: that failure comes from the interrupt.
+ */
+@Component
+public class FeignResilience implements BeanPostProcessor, Ordered {
+
+    // Set by FeignHedging on the threads running an attempt
+    static final ThreadLocal<Attempt> ATTEMPT = new ThreadLocal<>();
+
+    /**
+     * One attempt of a hedged call.
+     */
+    static final class Attempt {
+        final boolean hedge;
+        // Set before FeignHedging interrupts an attempt that lost the race
+        volatile boolean abandoned = false;
+
+        Attempt(boolean hedge) {
+            this.hedge = hedge;
+        }
+    }
+
+    private final ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry;
+    private final ObjectProvider<BulkheadRegistry> bulkheadRegistry;
+
+    // Resolved lazily: bean post processors are created before the registries
+    public FeignResilience(ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry,
+                           ObjectProvider<BulkheadRegistry> bulkheadRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        for (Class<?> client : ClassUtils.getAllInterfacesForClassAsSet(bean.getClass())) {
+            if (AnnotationUtils.findAnnotation(client, FeignClient.class) != null) {
+                return Proxy.newProxyInstance(client.getClassLoader(), new Class<?>[]{client},
+                        new ResilienceHandler(bean, client.getSimpleName()));
+            }
+        }
+        return bean;
+    }
+
+    private final class ResilienceHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String clientName;
+        private volatile CircuitBreaker circuitBreaker;
+        private volatile Bulkhead bulkhead;
+        private volatile Bulkhead hedgeBulkhead;
+
+        ResilienceHandler(Object target, String clientName) {
+            this.target = target;
+            this.clientName = clientName;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeTarget(method, args);
+            }
+            if (circuitBreaker == null) {
+                // Same instances on every resolution: the registries cache them by name
+                hedgeBulkhead = bulkheadRegistry.getObject().bulkhead(clientName + "Hedge");
+                bulkhead = bulkheadRegistry.getObject().bulkhead(clientName);
+                circuitBreaker = circuitBreakerRegistry.getObject().circuitBreaker(clientName);
+            }
+            Attempt attempt = ATTEMPT.get();
+            Bulkhead permits = (attempt != null && attempt.hedge) ? hedgeBulkhead : bulkhead;
+            return Bulkhead.decorateCheckedSupplier(permits, () -> callThroughBreaker(method, args, attempt)).get();
+        }
+
+        /**
+         * Same as CircuitBreaker.decorateCheckedSupplier, except for abandoned hedging attempts.
+         */
+        private Object callThroughBreaker(Method method, Object[] args, Attempt attempt) throws Throwable {
+            circuitBreaker.acquirePermission();
+            long start = circuitBreaker.getCurrentTimestamp();
+            try {
+                Object result = invokeTarget(method, args);
+                circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - start,
+                        circuitBreaker.getTimestampUnit(), result);
+                return result;
+            } catch (Throwable e) {
+                if (attempt != null && attempt.abandoned) {
+                    circuitBreaker.releasePermission();
+                } else {
+                    circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+                            circuitBreaker.getTimestampUnit(), e);
+                }
+                throw e;
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Single-flight in front of the Feign clients: concurrent calls with the same method and equal
+ * arguments share the call already in flight instead of each going out over HTTP.
+ * Every client method is an idempotent read, so sharing the answer (or the error) is safe;
+ * arguments must implement equals/hashCode. Counted in feign.singleflight.calls{client, method, outcome}
+ * where outcome is "executed" or "collapsed".
+ */
+@Component
+@ConditionalOnProperty(name = "feign.single-flight.enabled", havingValue = "true", matchIfMissing = true)
+public class FeignSingleFlight implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    // Resolved lazily: bean post processors are created before the meter registry
+    public FeignSingleFlight(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Outermost proxy: collapsed calls never reach the bulkheads and circuit breakers of FeignResilience
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> client = feignClientInterface(bean);
+        if (client == null) {
+            return bean;
+        }
+        return Proxy.newProxyInstance(client.getClassLoader(), new Class<?>[]{client},
+                new SingleFlightHandler(bean, client.getSimpleName()));
+    }
+
+    private static Class<?> feignClientInterface(Object bean) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(bean.getClass())) {
+            if (AnnotationUtils.findAnnotation(candidate, FeignClient.class) != null) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private record CallKey(Method method, List<Object> args) {
+    }
+
+    private final class SingleFlightHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String clientName;
+        private final Map<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+        private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+        SingleFlightHandler(Object target, String clientName) {
+            this.target = target;
+            this.clientName = clientName;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeTarget(method, args);
+            }
+
+            CallKey key = new CallKey(method, (args != null) ? Arrays.asList(args) : List.of());
+            CompletableFuture<Object> call = new CompletableFuture<>();
+            CompletableFuture<Object> running = inFlight.putIfAbsent(key, call);
+            if (running != null) {
+                count(method, "collapsed");
+                try {
+                    return running.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause();
+                }
+            }
+
+            count(method, "executed");
+            try {
+                Object result = invokeTarget(method, args);
+                call.complete(result);
+                return result;
+            } catch (Throwable e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void count(Method method, String outcome) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return;
+            }
+            counters.computeIfAbsent(method.getName() + ':' + outcome, name -> Counter.builder("feign.singleflight.calls")
+                    .description("Outbound Feign calls, executed or collapsed onto an identical call in flight")
+                    .tag("client", clientName)
+                    .tag("method", method.getName())
+                    .tag("outcome", outcome)
+                    .register(registry)
+            ).increment();
+        }
+    }
+}
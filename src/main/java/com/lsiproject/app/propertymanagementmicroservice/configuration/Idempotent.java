@@ -0,0 +1,17 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Feign client method that is safe to send twice although it is not a GET,
+ * e.g. a model inference exposed over POST. Only GET methods and these are hedged by {@link FeignHedging}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -0,0 +1,76 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Managed outbound HTTP transport.
+ * Feign clients run on the pooled Apache HttpClient 5 created by Spring Cloud OpenFeign
+ * (spring.cloud.openfeign.httpclient.*): keep-alive pooling with per-route limits, and gzip
+ * responses requested and decompressed transparently by the client.
+ * WebClients built from the shared WebClient.Builder (Supabase storage) run on a Reactor Netty pool
+ * with one pool per remote host, HTTP/2 negotiated over TLS and gzip.
+ * Both pools are exported to the meter registry (httpcomponents.httpclient.pool.*, reactor.netty.connection.provider.*).
+ */
+@Configuration
+public class OutboundHttpConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider outboundConnectionProvider(
+            @Value("${app.http.webclient.max-connections-per-host:50}") int maxConnectionsPerHost,
+            @Value("${app.http.webclient.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${app.http.webclient.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${app.http.webclient.max-life-time:15m}") Duration maxLifeTime
+    ) {
+        // Reactor Netty keeps a separate pool per remote address: the limit applies per host
+        return ConnectionProvider.builder("outbound")
+                .maxConnections(maxConnectionsPerHost)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Picked up by Spring Boot for every WebClient.Builder it hands out.
+     */
+    @Bean
+    public ClientHttpConnector outboundClientHttpConnector(
+            ConnectionProvider outboundConnectionProvider,
+            @Value("${app.http.webclient.response-timeout:30s}") Duration responseTimeout
+    ) {
+        HttpClient httpClient = HttpClient.create(outboundConnectionProvider)
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .compress(true)
+                .responseTimeout(responseTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> {
+            HttpClientConnectionManager manager = connectionManager.getIfAvailable();
+            if (manager instanceof ConnPoolControl<?> pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder((ConnPoolControl<HttpRoute>) pool, "feign")
+                        .bindTo(registry);
+            }
+        };
+    }
+}
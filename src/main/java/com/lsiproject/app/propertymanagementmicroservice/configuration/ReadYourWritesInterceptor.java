@@ -0,0 +1,53 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lsiproject.app.propertymanagementmicroservice.security.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes: a caller that wrote recently reads from the primary until the window expires.
+ * Opens and closes the routing scope of each request, see {@link ReplicaRoutingDataSource#beginRequest(boolean)}.
+ */
+class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    ReadYourWritesInterceptor(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = currentUserId();
+        ReplicaRoutingDataSource.beginRequest(userId != null && recentWriters.getIfPresent(userId) != null);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        boolean wrote = ReplicaRoutingDataSource.endRequest();
+        Long userId = currentUserId();
+        if (wrote && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getIdUser();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting between the MySQL primary (spring.datasource.*) and read replicas.
+ * Enabled with app.datasource.replica.enabled=true and a comma-separated app.datasource.replica.urls.
+ * The lag guard runs app.datasource.replica.lag-query (MySQL 8 replica status by default);
+ * leave it empty to only check that the replicas answer, e.g. with two local H2 instances.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    private final ReadYourWritesInterceptor readYourWrites;
+
+    public ReplicaRoutingConfig(
+            @Value("${app.datasource.replica.read-your-writes-window:10s}") Duration readYourWritesWindow) {
+        this.readYourWrites = new ReadYourWritesInterceptor(readYourWritesWindow);
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            ObjectProvider<EntityManagerFactory> entityManagerFactory,
+            @Value("${app.datasource.replica.urls}") List<String> urls,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica.pool-size:10}") int poolSize,
+            @Value("${app.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+            @Value("${app.datasource.replica.lag-column:Seconds_Behind_Source}") String lagColumn,
+            @Value("${app.datasource.replica.max-lag-seconds:5}") long maxLagSeconds
+    ) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i).trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Same driver settings as the primary (useCursorFetch for the export streams, which run read-only)
+            replica.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            replicas.add(replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primaryDataSource, replicas, lagQuery, lagColumn, maxLagSeconds);
+        // A lagging replica must not overwrite fresher second-level cache entries: read it, never fill it
+        routing.setReplicaReadListener(() -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(
+                    entityManagerFactory.getObject());
+            if (entityManager != null) {
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        });
+        routing.checkReplicas();
+        // The replica pools are not beans: ReplicaRoutingDataSource.destroy() closes them
+        return routing;
+    }
+
+    /**
+     * The routing key is resolved on the first statement, once the transaction (and its read-only flag) is open.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readYourWrites);
+    }
+}
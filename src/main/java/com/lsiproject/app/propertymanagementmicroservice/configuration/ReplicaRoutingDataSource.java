@@ -0,0 +1,177 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy: the key is only known once the
+ * transaction is open, i.e. when the first statement runs.
+ * A replica is healthy while it answers and its replication lag stays under the limit;
+ * a request pinned through {@link #beginRequest(boolean)} (read-your-writes) or code run through
+ * {@link #readFromPrimary(Supplier)} never reads from a replica. The replica pools are closed with this bean.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY_KEY = "primary";
+
+    // null: not inside a routed request, FALSE: request reads may use replicas, TRUE: pinned to the primary
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> WROTE = new ThreadLocal<>();
+
+    private final Map<String, DataSource> replicas;
+    private volatile String[] routableReplicas = new String[0];
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final String lagQuery;
+    private final String lagColumn;
+    private final long maxLagSeconds;
+    private Runnable replicaReadListener = () -> {};
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources,
+                                    String lagQuery, String lagColumn, long maxLagSeconds) {
+        this.replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            replicas.put("replica-" + i, replicaDataSources.get(i));
+        }
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.maxLagSeconds = maxLagSeconds;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY_KEY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Called on the request thread each time a transaction is routed to a replica.
+     */
+    public void setReplicaReadListener(Runnable replicaReadListener) {
+        this.replicaReadListener = replicaReadListener;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY_KEY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Later reads of this request must see this write
+            WROTE.set(Boolean.TRUE);
+            if (PINNED.get() != null) {
+                PINNED.set(Boolean.TRUE);
+            }
+            return PRIMARY_KEY;
+        }
+        String[] candidates = routableReplicas;
+        if (candidates.length == 0 || Boolean.TRUE.equals(PINNED.get())) {
+            return PRIMARY_KEY;
+        }
+        replicaReadListener.run();
+        return candidates[Math.floorMod(nextReplica.getAndIncrement(), candidates.length)];
+    }
+
+    /**
+     * Opens the routing scope of a request.
+     * @param pinned Whether every read must go to the primary (recent write by the same caller).
+     */
+    public static void beginRequest(boolean pinned) {
+        PINNED.set(pinned);
+        WROTE.remove();
+    }
+
+    /**
+     * Closes the routing scope of a request.
+     * @return Whether the request ran a read-write transaction.
+     */
+    public static boolean endRequest() {
+        boolean wrote = Boolean.TRUE.equals(WROTE.get());
+        PINNED.remove();
+        WROTE.remove();
+        return wrote;
+    }
+
+    /**
+     * Runs the action with its read-only transactions on the primary, whether replicas are configured or not.
+     * For reloads of in-memory state that must not go back in time behind changes already applied.
+     */
+    public static <T> T readFromPrimary(Supplier<T> action) {
+        Boolean previous = PINNED.get();
+        PINNED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            // Inside a request the pin is kept: it only ever makes later reads fresher
+            if (previous == null) {
+                PINNED.remove();
+            }
+        }
+    }
+
+    /**
+     * Probes every replica and keeps only those that answer with an acceptable lag.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (isHealthy(replica.getKey(), replica.getValue())) {
+                healthy.add(replica.getKey());
+            }
+        }
+        String[] routable = healthy.toArray(new String[0]);
+        if (!Arrays.equals(routable, routableReplicas)) {
+            System.out.println("Routable read replicas: " + healthy);
+        }
+        routableReplicas = routable;
+    }
+
+    private boolean isHealthy(String name, DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    System.err.println("Replica " + name + " reports no replication status.");
+                    return false;
+                }
+                long lagSeconds = rs.getLong(lagColumn);
+                // NULL: the replication threads are stopped
+                return !rs.wasNull() && lagSeconds <= maxLagSeconds;
+            }
+        } catch (Exception e) {
+            System.err.println("Replica " + name + " check failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (replica.getValue() instanceof AutoCloseable pool) {
+                try {
+                    pool.close();
+                } catch (Exception e) {
+                    System.err.println("Failed to close replica " + replica.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import feign.Request;
+import feign.Response;
+import feign.slf4j.Slf4jLogger;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Feign logger that only formats full requests and responses (headers and bodies) for a sample
+ * of the calls, plus every error response or I/O failure. The other calls are not logged at all,
+ * so large payloads such as heatmaps are no longer formatted on every request.
+ * Expects the FULL level: the level only makes the calls eligible, the sampling decides. Output goes to
+ * the SLF4J logger named after the client interface, at DEBUG, and is only formatted when that is enabled.
+ */
+public class SampledFeignLogger extends Slf4jLogger {
+
+    // Decided when the request goes out, read back when its response (or failure) comes in
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private final double sampleRate;
+
+    public SampledFeignLogger(Class<?> clientType, double sampleRate) {
+        super(clientType);
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void logRequest(String configKey, Level logLevel, Request request) {
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        SAMPLED.set(sampled);
+        if (sampled) {
+            super.logRequest(configKey, logLevel, request);
+        }
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Level logLevel, Response response,
+                                              long elapsedTime) throws IOException {
+        boolean sampled = Boolean.TRUE.equals(SAMPLED.get());
+        SAMPLED.remove();
+        if (!sampled && response.status() < 400) {
+            return response;
+        }
+        return super.logAndRebufferResponse(configKey, logLevel, response, elapsedTime);
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+        SAMPLED.remove();
+        return super.logIOException(configKey, logLevel, ioe, elapsedTime);
+    }
+}
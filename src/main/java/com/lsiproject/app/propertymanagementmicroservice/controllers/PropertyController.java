@@ -1,10 +1,16 @@
 package com.lsiproject.app.propertymanagementmicroservice.controllers;
 
 import com.lsiproject.app.propertymanagementmicroservice.CreationDTOs.PropertyCreationDTO;
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.KeysetPage;
 import com.lsiproject.app.propertymanagementmicroservice.Enums.TypeOfRental;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.AvailabilityBatchResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.HeatmapResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PricePredictionBatchResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PricePredictionResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyBulkResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyDistanceResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.UpdateDTOs.AvailabilityBatchDTO;
 import com.lsiproject.app.propertymanagementmicroservice.UpdateDTOs.AvailabilityDTO;
 import com.lsiproject.app.propertymanagementmicroservice.UpdateDTOs.PropertyUpdateDTO;
 import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
@@ -12,15 +18,22 @@ import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
 import com.lsiproject.app.propertymanagementmicroservice.searchDTOs.PropertySearchDTO;
 import com.lsiproject.app.propertymanagementmicroservice.security.UserPrincipal;
 
+import com.lsiproject.app.propertymanagementmicroservice.services.HeatmapCache;
+import com.lsiproject.app.propertymanagementmicroservice.services.PropertyExportService;
 import com.lsiproject.app.propertymanagementmicroservice.services.PropertyService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -31,6 +44,7 @@ public class PropertyController {
 
     private final PropertyService propertyService;
     private final PropertyMapper propertyMapper;
+    private final PropertyExportService propertyExportService;
 
     // --- CREATE ---
 
@@ -62,39 +76,99 @@ public class PropertyController {
         }
     }
 
+    /**
+     * Searches active and available properties, one keyset page at a time.
+     * The next page is advertised in the Link header (rel="next").
+     * @param searchDTO The search criteria.
+     * @param cursor Cursor of the page to fetch, from the previous Link header.
+     * @param size Page size.
+     * @param withCount Whether to fill the X-Total-Count header.
+     * @return 200 OK with the page of properties, 400 if the cursor or size is invalid.
+     */
     @PostMapping("/search")
-    public ResponseEntity<List<PropertyResponseDTO>> searchProperties(@RequestBody PropertySearchDTO searchDTO) {
-        List<Property> properties = propertyService.searchProperties(searchDTO);
-
-        List<PropertyResponseDTO> responseDto = new ArrayList<>();
-
-        for(Property prop : properties){
-            PropertyResponseDTO newResponseDto = propertyMapper.toDto(prop);
-            responseDto.add(newResponseDto);
+    public ResponseEntity<List<PropertyResponseDTO>> searchProperties(
+            @RequestBody PropertySearchDTO searchDTO,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withCount) {
+        try {
+            return pageResponse(propertyService.searchProperties(searchDTO, cursor, size, withCount));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
+    }
 
-        return ResponseEntity.ok(responseDto);
+    /**
+     * Returns the k closest listings to the search point that pass the search filters,
+     * sorted by distance (radiusInKm caps the distance).
+     * @param searchDTO Search criteria, latitude and longitude are required.
+     * @param k Number of listings to return.
+     * @return 200 OK with the listings and their distance, 400 if the location or k is invalid.
+     */
+    @PostMapping("/search/nearest")
+    public ResponseEntity<List<PropertyDistanceResponseDTO>> searchNearestProperties(
+            @RequestBody PropertySearchDTO searchDTO,
+            @RequestParam(defaultValue = "10") int k) {
+        try {
+            return ResponseEntity.ok(propertyService.findNearestProperties(searchDTO, k));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     // --- READ ---
     /**
-     * Retrieves all listed properties.
+     * Retrieves all listed properties, newest first, one keyset page at a time;
+     * the next page is advertised in the Link header (rel="next"). Full pulls go through /properties/export.
      * Accessible by any authenticated user.
-     * * @return 200 OK with a list of properties.
+     * @param cursor Cursor of the page to fetch, from the previous Link header.
+     * @param size Page size.
+     * @param withCount Whether to fill the X-Total-Count header (approximate catalog size).
+     * @return 200 OK with a page of properties, 400 if the cursor or size is invalid.
      */
     @GetMapping
-    public ResponseEntity<List<PropertyResponseDTO>> getAllProperties() {
-        List<Property> property = propertyService.getAllProperties();
+    public ResponseEntity<List<PropertyResponseDTO>> getAllProperties(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean withCount) {
+        try {
+            return pageResponse(propertyService.getAllProperties(cursor, size, withCount));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
-        List<PropertyResponseDTO> responseDto = new ArrayList<>();
+    /**
+     * Writes a keyset page: items in the body, the total in X-Total-Count and the next page in Link.
+     */
+    private <T> ResponseEntity<List<T>> pageResponse(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
 
-        for(Property prop : property){
-            PropertyResponseDTO newResponseDto = propertyMapper.toDto(prop);
-            responseDto.add(newResponseDto);
+        if (page.totalCount() != null) {
+            response.header("X-Total-Count", String.valueOf(page.totalCount()));
         }
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
 
-        System.out.println(responseDto);
-        return ResponseEntity.ok(responseDto);
+    /**
+     * Streams the catalog as NDJSON (one PropertyResponseDTO per line), ordered by ID.
+     * Meant for partner and ML jobs that need every listing.
+     * @param updatedAfter Only export listings changed after this date-time (ISO-8601).
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportCatalog(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedAfter,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        propertyExportService.exportCatalog(updatedAfter, response.getOutputStream());
     }
 
     /**
@@ -108,6 +182,7 @@ public class PropertyController {
             Property property = propertyService.getProperty(id);
 
             PropertyResponseDTO responseDto = propertyMapper.toDto(property);
+            propertyService.recordView(id);
 
             return ResponseEntity.ok(responseDto);
 
@@ -121,28 +196,51 @@ public class PropertyController {
         }
     }
 
+    /**
+     * Fetches many properties in one call (service-to-service).
+     * @param ids Database IDs, or on-chain IDs when onChain is true.
+     * @param onChain Whether the IDs are on-chain IDs.
+     * @return 200 OK with the properties in request order and the missing IDs; 400 if too many IDs are sent.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<PropertyBulkResponseDTO> getPropertiesByIds(
+            @RequestBody List<Long> ids,
+            @RequestParam(defaultValue = "false") boolean onChain) {
+        try {
+            return ResponseEntity.ok(propertyService.getPropertiesByIds(ids, onChain));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}/isAvailable")
     public ResponseEntity<Boolean> isPropertyAvailable(@PathVariable Long id) {
         return ResponseEntity.ok(propertyService.isPropertyAvailable(id));
     }
 
     /**
-     * Retrieves the 3 most recent(just for now) properties that are active and available.
+     * Checks the availability of many properties at once.
+     * @param ids The property IDs.
+     * @return 200 OK with one boolean per ID, in the same order; 400 if too many IDs are sent.
+     */
+    @PostMapping("/availability/check")
+    public ResponseEntity<boolean[]> arePropertiesAvailable(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(propertyService.arePropertiesAvailable(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retrieves the featured properties (active and available), ranked by recency and popularity.
      * Accessible by any user (public).
-     * @return 200 OK with a list of maximum 3 properties.
+     * @return 200 OK with a list of maximum 3 properties (property.featured.size).
      */
     @GetMapping("/featured")
     public ResponseEntity<List<PropertyResponseDTO>> getRecentProperties() {
         try {
-            List<Property> properties = propertyService.getMostRecentProperties();
-            List<PropertyResponseDTO> responseDto = new ArrayList<>();
-
-            for (Property prop : properties) {
-                PropertyResponseDTO dto = propertyMapper.toDto(prop);
-                responseDto.add(dto);
-            }
-
-            return ResponseEntity.ok(responseDto);
+            return ResponseEntity.ok(propertyService.getFeaturedProperties());
         } catch (Exception e) {
             System.err.println("Failed to fetch recent properties: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -161,13 +259,7 @@ public class PropertyController {
             Long currentUserId = principal.getIdUser();
 
             // 2. Appeler le service
-            List<Property> properties = propertyService.getPropertiesByOwnerId(currentUserId);
-
-            // 3. Mapper vers les DTOs
-            List<PropertyResponseDTO> responseDto = new ArrayList<>();
-            for (Property prop : properties) {
-                responseDto.add(propertyMapper.toDto(prop));
-            }
+            List<PropertyResponseDTO> responseDto = propertyService.getPropertiesByOwnerId(currentUserId);
 
             return ResponseEntity.ok(responseDto);
 
@@ -210,20 +302,41 @@ public class PropertyController {
         }
     }
 
+    /**
+     * Marks a property as rented (called by the rental agreement service).
+     * @return 200 OK with true if the availability changed, false if the property already was unavailable.
+     */
     @GetMapping("/{id}/availability")
-    public ResponseEntity<Void> updateAvailabilityToFalse(
+    public ResponseEntity<Boolean> updateAvailabilityToFalse(
             @PathVariable Long id) {
 
-        propertyService.updateAvailabilityToFalse(id);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(propertyService.updateAvailabilityToFalse(id));
     }
 
+    /**
+     * Marks a property as available again (called by the rental agreement service).
+     * @return 200 OK with true if the availability changed, false if the property already was available.
+     */
     @GetMapping("/{id}/availabilityToTrue")
-    public ResponseEntity<Void> updateAvailabilityToTrue(
+    public ResponseEntity<Boolean> updateAvailabilityToTrue(
             @PathVariable Long id) {
 
-        propertyService.updateAvailabilityToTrue(id);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(propertyService.updateAvailabilityToTrue(id));
+    }
+
+    /**
+     * Sets the availability of many properties in one transaction.
+     * @param dto The property IDs and the target availability.
+     * @return 200 OK with the changed and unchanged IDs, 400 if the batch is empty or too large.
+     */
+    @PatchMapping("/availability")
+    public ResponseEntity<AvailabilityBatchResponseDTO> updateAvailability(
+            @RequestBody @Valid AvailabilityBatchDTO dto) {
+        try {
+            return ResponseEntity.ok(propertyService.updateAvailability(dto.propertyIds(), dto.isAvailable()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}/TypeOfRental")
@@ -277,14 +390,61 @@ public class PropertyController {
     @GetMapping("/heatmap")
     public ResponseEntity<HeatmapResponseDTO> getMarketHeatmap(@RequestParam TypeOfRental type) {
         try {
-            HeatmapResponseDTO response = propertyService.getHeatmap(type);
-            return ResponseEntity.ok(response);
+            HeatmapCache.CachedHeatmap cached = propertyService.getHeatmap(type);
+            return heatmapResponse(cached);
         } catch (Exception e) {
             System.err.println("Heatmap request failed: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
     }
 
+    /**
+     * Market heatmap computed from our own listings, at the given geohash precision.
+     */
+    @GetMapping("/heatmap/local")
+    public ResponseEntity<HeatmapResponseDTO> getLocalMarketHeatmap(
+            @RequestParam TypeOfRental type,
+            @RequestParam(required = false) Integer precision) {
+        try {
+            int geohashPrecision = (precision != null) ? precision : propertyService.getDefaultLocalHeatmapPrecision();
+            return heatmapResponse(propertyService.getLocalHeatmap(type, geohashPrecision));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    private static ResponseEntity<HeatmapResponseDTO> heatmapResponse(HeatmapCache.CachedHeatmap cached) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(cached.ageSeconds()))
+                .header("X-Heatmap-Source", cached.source())
+                .body(cached.heatmap());
+    }
+
+    @PostMapping("/heatmap/refresh")
+    public ResponseEntity<Void> refreshMarketHeatmap(@RequestParam TypeOfRental type) {
+        propertyService.refreshHeatmap(type);
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Price suggestions for all the properties of the authenticated owner, computed in parallel.
+     * @return Suggestions by property ID, plus the IDs whose prediction failed or timed out.
+     */
+    @GetMapping("/my-properties/predict-price")
+    public ResponseEntity<PricePredictionBatchResponseDTO> predictMyPrices(@AuthenticationPrincipal UserPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return ResponseEntity.ok(propertyService.getPricePredictionsByOwnerId(principal.getIdUser()));
+        } catch (Exception e) {
+            System.err.println("Batch price prediction failed: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Predicts the price for a property using the ML-PriceSuggestion service.
      * Automatically selects monthly or daily prediction based on the property's rental type.
@@ -0,0 +1,35 @@
+package com.lsiproject.app.propertymanagementmicroservice.controllers;
+
+import com.lsiproject.app.propertymanagementmicroservice.services.UserProfileCache;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Invalidation hooks called by the UserManagement service when a user profile changes.
+ */
+@RestController
+@RequestMapping("/api/property-microservice/cache/user-profiles")
+@AllArgsConstructor
+public class UserProfileCacheController {
+
+    private final UserProfileCache userProfileCache;
+
+    /**
+     * DELETE /cache/user-profiles/{userId} : Drop one cached profile, the next recommendation reloads it.
+     */
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> invalidate(@PathVariable Long userId) {
+        userProfileCache.invalidate(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * DELETE /cache/user-profiles : Drop every cached profile.
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> invalidateAll() {
+        userProfileCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
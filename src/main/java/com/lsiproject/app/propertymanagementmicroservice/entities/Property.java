@@ -7,7 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 import java.time.LocalDateTime;
@@ -23,7 +24,12 @@ import java.time.LocalDateTime;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "properties")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "properties", indexes = {
+        @Index(name = "idx_properties_geohash", columnList = "geohash"),
+        @Index(name = "idx_properties_lat_lon", columnList = "latitude, longitude")
+})
 public class Property {
 
     //off-cjain id(in mysql)
@@ -41,10 +47,16 @@ public class Property {
     private String address;
     private Double longitude;
     private Double latitude;
+
+    // Geohash of (latitude, longitude), kept in sync by PropertyService for indexed radius searches
+    @Column(length = 12)
+    private String geohash;
+
     private String description;
     private Integer SqM;
-    @Formula("(SELECT COUNT(r.idRoom) FROM rooms r WHERE r.property_id = idProperty)")
-    private Integer total_Rooms;
+    // Denormalized number of rooms, maintained by RoomService (see RoomService.repairRoomCounts)
+    @Column(name = "total_rooms")
+    private Integer total_Rooms = 0;
 
     private PropertyType typeOfProperty;
 
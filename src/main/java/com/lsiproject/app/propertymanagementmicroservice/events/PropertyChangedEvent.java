@@ -0,0 +1,15 @@
+package com.lsiproject.app.propertymanagementmicroservice.events;
+
+/**
+ * Published by the write paths whenever a property row changes (creation, update,
+ * availability transition, delisting). Listeners reload the row after the commit
+ * to refresh their in-memory views.
+ * @param idProperty The database ID of the changed property.
+ * @param isAvailable Availability after the change, null when the write did not touch it.
+ */
+public record PropertyChangedEvent(Long idProperty, Boolean isAvailable) {
+
+    public PropertyChangedEvent(Long idProperty) {
+        this(idProperty, null);
+    }
+}
@@ -1,6 +1,7 @@
 package com.lsiproject.app.propertymanagementmicroservice.mappers;
 
 
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.PricePredictionRequestDTO;
 import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
 import org.springframework.stereotype.Component;
@@ -42,6 +43,21 @@ public class PropertyMapper {
         );
     }
 
+    /**
+     * Inputs of the ML-PriceSuggestion model.
+     */
+    public PricePredictionRequestDTO toPricePredictionRequest(Property entity) {
+        PricePredictionRequestDTO request = new PricePredictionRequestDTO();
+        request.setCity(entity.getCity());
+        request.setCountry(entity.getCountry());
+        request.setLongitude(entity.getLongitude());
+        request.setLatitude(entity.getLatitude());
+        request.setSqm(entity.getSqM());
+        request.setTotal_rooms(entity.getTotal_Rooms());
+        request.setNombre_etoiles(entity.getNombreEtoiles());
+        return request;
+    }
+
 //    private RoomResponseDTO toDto(Room entity) {
 //        if (entity == null) {
 //            return null;
@@ -3,6 +3,8 @@ package com.lsiproject.app.propertymanagementmicroservice.openFeignClients;
 import com.lsiproject.app.propertymanagementmicroservice.DTOs.PricePredictionRequestDTO;
 import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PricePredictionResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.configuration.FeignConfig;
+import com.lsiproject.app.propertymanagementmicroservice.configuration.Idempotent;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -19,6 +21,7 @@ public interface PriceSuggestionClient {
      * @param request Property details for prediction
      * @return Price prediction response
      */
+    @Idempotent
     @PostMapping("/predict/monthly")
     PricePredictionResponseDTO predictMonthlyPrice(@RequestBody PricePredictionRequestDTO request);
     
@@ -27,6 +30,21 @@ public interface PriceSuggestionClient {
      * @param request Property details for prediction
      * @return Price prediction response
      */
+    @Idempotent
     @PostMapping("/predict/daily")
     PricePredictionResponseDTO predictDailyPrice(@RequestBody PricePredictionRequestDTO request);
+
+    /**
+     * Same as {@link #predictMonthlyPrice(PricePredictionRequestDTO)} with per-call connect/read timeouts.
+     */
+    @Idempotent
+    @PostMapping("/predict/monthly")
+    PricePredictionResponseDTO predictMonthlyPrice(@RequestBody PricePredictionRequestDTO request, Request.Options options);
+
+    /**
+     * Same as {@link #predictDailyPrice(PricePredictionRequestDTO)} with per-call connect/read timeouts.
+     */
+    @Idempotent
+    @PostMapping("/predict/daily")
+    PricePredictionResponseDTO predictDailyPrice(@RequestBody PricePredictionRequestDTO request, Request.Options options);
 }
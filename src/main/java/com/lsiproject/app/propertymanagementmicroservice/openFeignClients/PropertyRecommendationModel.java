@@ -3,6 +3,7 @@ package com.lsiproject.app.propertymanagementmicroservice.openFeignClients;
 
 import com.lsiproject.app.propertymanagementmicroservice.DTOs.PropertyRecommendationRequestDTO;
 import com.lsiproject.app.propertymanagementmicroservice.configuration.FeignConfig;
+import com.lsiproject.app.propertymanagementmicroservice.configuration.Idempotent;
 import com.lsiproject.app.propertymanagementmicroservice.wrappers.PropertyRecommendationResponseWrapper;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestBody;
         configuration = FeignConfig.class
 )
 public interface PropertyRecommendationModel {
+    @Idempotent
     @PostMapping("/recommend")
     PropertyRecommendationResponseWrapper recommend_properties(@RequestBody PropertyRecommendationRequestDTO request);
 }
@@ -1,18 +1,90 @@
 package com.lsiproject.app.propertymanagementmicroservice.repository;
 
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
+public interface PropertyRepository extends JpaRepository<Property,Long>, JpaSpecificationExecutor<Property>, PropertyRepositoryCustom {
+
+    // Read-only list endpoints select straight into the response record (no entity hydration)
+    String DTO_SELECT = "SELECT new com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO(" +
+            "p.idProperty, p.onChainId, p.title, p.country, p.city, p.address, p.longitude, p.latitude, " +
+            "p.description, p.SqM, p.typeOfProperty, p.total_Rooms, p.typeOfRental, p.rentAmount, " +
+            "p.securityDeposit, p.isAvailable, p.isActive, p.ownerId, p.ownerEthAddress, p.createdAt, p.updatedAt) " +
+            "FROM Property p ";
 
-public interface PropertyRepository extends JpaRepository<Property,Long>, JpaSpecificationExecutor<Property> {
     Optional<Property> findByOnChainId(Long onChainId);
 
-    boolean existsByIdPropertyAndIsAvailableTrue(Long id);
-    List<Property> findTop3ByIsActiveTrueAndIsAvailableTrueOrderByCreatedAtDesc();
+    // Full loads for the geo index: do not flood the second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Property> findAllByIsActiveTrueAndIsAvailableTrue();
+    List<Property> findAllByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull();
+
+    // ID-only scans for the availability index
+    @Query("SELECT p.idProperty FROM Property p WHERE p.isAvailable = true")
+    List<Long> findAvailableIds();
+
+    @Query("SELECT p.idProperty FROM Property p WHERE p.isAvailable = true AND p.idProperty IN :ids")
+    List<Long> findAvailableIdsIn(@Param("ids") Collection<Long> ids);
+
+    @Query(DTO_SELECT + "WHERE p.isActive = true AND p.isAvailable = true ORDER BY p.createdAt DESC, p.idProperty DESC")
+    List<PropertyResponseDTO> findMostRecentDtos(Pageable pageable);
+
+    // Full load for the local heatmap engine
+    @Query(DTO_SELECT + "WHERE p.isActive = true AND p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    List<PropertyResponseDTO> findActiveDtosWithLocation();
+
     List<Property> findAllByOwnerId(Long ownerId);
-    List<Property> findAllByIdPropertyIn(List<Long> ids);
+
+    @Query(DTO_SELECT + "WHERE p.ownerId = :ownerId")
+    List<PropertyResponseDTO> findDtosByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(DTO_SELECT + "WHERE p.idProperty IN :ids")
+    List<PropertyResponseDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(DTO_SELECT + "WHERE p.onChainId IN :onChainIds")
+    List<PropertyResponseDTO> findDtosByOnChainIdIn(@Param("onChainIds") Collection<Long> onChainIds);
+
+    // Room count repair (increments go through PropertyRepositoryCustom.adjustTotalRooms).
+    // A bulk JPQL update drops the whole Property region of the second-level cache: fine for a nightly job
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Property p SET p.total_Rooms = (SELECT COUNT(r) FROM Room r WHERE r.property = p) " +
+            "WHERE p.total_Rooms IS NULL OR p.total_Rooms <> (SELECT COUNT(r) FROM Room r WHERE r.property = p)")
+    int repairTotalRooms();
+
+    // Forward-only export cursors (fixed fetch size, read-only entities, kept out of the second-level cache)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Property> streamAllByOrderByIdPropertyAsc();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT p FROM Property p " +
+            "WHERE p.updatedAt > :updatedAfter OR (p.updatedAt IS NULL AND p.createdAt > :updatedAfter) " +
+            "ORDER BY p.idProperty")
+    Stream<Property> streamChangedAfter(@Param("updatedAfter") LocalDateTime updatedAfter);
 
 }
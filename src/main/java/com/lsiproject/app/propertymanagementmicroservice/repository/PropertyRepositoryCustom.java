@@ -0,0 +1,40 @@
+package com.lsiproject.app.propertymanagementmicroservice.repository;
+
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queries Spring Data cannot derive: specification queries projected straight into
+ * PropertyResponseDTO, optionally bounded without the count query Page finders issue,
+ * and JDBC-batched availability transitions.
+ */
+public interface PropertyRepositoryCustom {
+
+    List<PropertyResponseDTO> findDtos(Specification<Property> spec, Sort sort);
+
+    List<PropertyResponseDTO> findDtos(Specification<Property> spec, Sort sort, int limit);
+
+    /**
+     * Loads properties by ID, from the second-level cache first and with one IN query for the rest.
+     * @return One entry per ID, in order; null where the property does not exist.
+     */
+    List<Property> findAllInRequestOrder(List<Long> ids);
+
+    /**
+     * Sets isAvailable on the given properties, skipping rows already in that state.
+     * @return One update count per ID, in order: 0 when the property did not transition.
+     */
+    int[] updateAvailability(List<Long> ids, boolean available, LocalDateTime updatedAt);
+
+    /**
+     * Adds delta to the denormalized room count of one property in a single statement.
+     * Only this property is evicted from the second-level cache, and its managed copy, if any, is refreshed.
+     * @return The number of updated rows: 0 when the property does not exist.
+     */
+    int adjustTotalRooms(Long idProperty, int delta);
+}
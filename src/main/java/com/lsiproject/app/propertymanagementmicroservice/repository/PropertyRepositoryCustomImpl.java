@@ -0,0 +1,175 @@
+package com.lsiproject.app.propertymanagementmicroservice.repository;
+
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public class PropertyRepositoryCustomImpl implements PropertyRepositoryCustom {
+
+    private static final String UPDATE_AVAILABILITY_SQL =
+            "UPDATE properties SET is_available = ?, updated_at = ? " +
+            "WHERE id_property = ? AND (is_available IS NULL OR is_available <> ?)";
+
+    private static final String ADJUST_TOTAL_ROOMS_SQL =
+            "UPDATE properties SET total_rooms = COALESCE(total_rooms, 0) + ? WHERE id_property = ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PropertyRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<PropertyResponseDTO> findDtos(Specification<Property> spec, Sort sort) {
+        return createDtoQuery(spec, sort).getResultList();
+    }
+
+    @Override
+    public List<PropertyResponseDTO> findDtos(Specification<Property> spec, Sort sort, int limit) {
+        return createDtoQuery(spec, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Property> findAllInRequestOrder(List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Property.class)
+                .with(CacheMode.NORMAL)
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+    }
+
+    @Override
+    @Transactional
+    public int[] updateAvailability(List<Long> ids, boolean available, LocalDateTime updatedAt) {
+        if (ids.isEmpty()) {
+            return new int[0];
+        }
+        // Same contract as @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_AVAILABILITY_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setBoolean(1, available);
+            ps.setTimestamp(2, timestamp);
+            ps.setLong(3, id);
+            ps.setBoolean(4, available);
+        })[0];
+        entityManager.clear();
+
+        evictFromSecondLevelCache(ids);
+        return counts;
+    }
+
+    @Override
+    @Transactional
+    public int adjustTotalRooms(Long idProperty, int delta) {
+        // Room inserts and deletes of this transaction first
+        entityManager.flush();
+        int updated = jdbcTemplate.update(ADJUST_TOTAL_ROOMS_SQL, delta, idProperty);
+
+        // Unlike a JPQL bulk update, the rest of the persistence context and of the Property region stay untouched
+        Object managed = managedProperty(idProperty);
+        if (managed != null) {
+            entityManager.refresh(managed);
+        }
+        evictFromSecondLevelCache(List.of(idProperty));
+        return updated;
+    }
+
+    /**
+     * @return The Property instance already loaded in the persistence context, without loading it.
+     */
+    private Object managedProperty(Long idProperty) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Property.class);
+        return session.getPersistenceContextInternal().getEntity(session.generateEntityKey(idProperty, persister));
+    }
+
+    /**
+     * Plain JDBC bypasses Hibernate: drops the cached copies now, and again after commit
+     * so a concurrent load of the old row cannot put it back.
+     */
+    private void evictFromSecondLevelCache(List<Long> ids) {
+        evictNow(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(ids);
+                }
+            });
+        }
+    }
+
+    private void evictNow(List<Long> ids) {
+        for (Long id : ids) {
+            entityManager.getEntityManagerFactory().getCache().evict(Property.class, id);
+        }
+    }
+
+    private TypedQuery<PropertyResponseDTO> createDtoQuery(Specification<Property> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertyResponseDTO> query = cb.createQuery(PropertyResponseDTO.class);
+        Root<Property> root = query.from(Property.class);
+
+        // Same column list and order as PropertyRepository.DTO_SELECT
+        query.select(cb.construct(
+                PropertyResponseDTO.class,
+                root.get("idProperty"),
+                root.get("onChainId"),
+                root.get("title"),
+                root.get("country"),
+                root.get("city"),
+                root.get("address"),
+                root.get("longitude"),
+                root.get("latitude"),
+                root.get("description"),
+                root.get("SqM"),
+                root.get("typeOfProperty"),
+                root.get("total_Rooms"),
+                root.get("typeOfRental"),
+                root.get("rentAmount"),
+                root.get("securityDeposit"),
+                root.get("isAvailable"),
+                root.get("isActive"),
+                root.get("ownerId"),
+                root.get("ownerEthAddress"),
+                root.get("createdAt"),
+                root.get("updatedAt")
+        ));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query);
+    }
+}
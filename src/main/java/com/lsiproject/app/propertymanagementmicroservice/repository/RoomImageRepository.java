@@ -1,10 +1,20 @@
 package com.lsiproject.app.propertymanagementmicroservice.repository;
 
+import com.lsiproject.app.propertymanagementmicroservice.configuration.CacheConfig;
 import com.lsiproject.app.propertymanagementmicroservice.entities.RoomImage;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+@Transactional(readOnly = true)
 public interface RoomImageRepository extends JpaRepository<RoomImage,Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.IMAGES_BY_ROOM_REGION)
+    })
     List<RoomImage> findByRoom_IdRoom(Long room);
 }
@@ -1,10 +1,20 @@
 package com.lsiproject.app.propertymanagementmicroservice.repository;
 
+import com.lsiproject.app.propertymanagementmicroservice.configuration.CacheConfig;
 import com.lsiproject.app.propertymanagementmicroservice.entities.Room;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+@Transactional(readOnly = true)
 public interface RoomRepository extends JpaRepository<Room,Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.ROOMS_BY_PROPERTY_REGION)
+    })
     List<Room> findByProperty_IdPropertyOrderByOrderIndexAsc(Long propertyId);
 }
@@ -39,7 +39,12 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/property-microservice/rooms/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/property-microservice/properties/room-images/**").permitAll()
                         .requestMatchers("/api/property-microservice/properties/search").permitAll()
+                        .requestMatchers("/api/property-microservice/properties/search/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/property-microservice/properties/availability/check").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/property-microservice/properties/bulk").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
+                        // Invalidations de cache : réservées au service UserManagement et aux administrateurs
+                        .requestMatchers(HttpMethod.DELETE, "/api/property-microservice/cache/**").hasAnyRole("ADMIN", "SERVICE")
                         .anyRequest().authenticated()
                 )
                 .headers(headers -> headers
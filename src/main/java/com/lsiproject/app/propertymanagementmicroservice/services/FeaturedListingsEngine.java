@@ -0,0 +1,185 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Home page featured listings, ranked by recency plus popularity.
+ * Views and search hits are counted in LongAdders on the request path; a scheduled job
+ * folds them into decaying popularity scores, ranks the candidates and swaps in a new
+ * immutable top-K snapshot, so {@link #featured(int)} never touches the database.
+ */
+@Component
+public class FeaturedListingsEngine {
+
+    private static final double VIEW_WEIGHT = 1.0;
+    private static final double SEARCH_HIT_WEIGHT = 0.2;
+    private static final double MIN_SCORE = 0.01;
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyAvailabilityIndex availabilityIndex;
+    private final int snapshotSize;
+    private final int candidatePool;
+    private final double decay;
+    private final double recencyHalfLifeHours;
+    private final double popularityWeight;
+
+    // One adder per viewed listing, kept (and reset) across flushes so no increment is ever lost
+    private final ConcurrentHashMap<Long, LongAdder> views = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> searchHits = new ConcurrentHashMap<>();
+    // Only touched by rebuild(), under rebuildLock
+    private final Map<Long, Double> popularity = new HashMap<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile List<PropertyResponseDTO> snapshot = null;
+
+    public FeaturedListingsEngine(
+            PropertyRepository propertyRepository,
+            PropertyAvailabilityIndex availabilityIndex,
+            @Value("${property.featured.snapshot-size:20}") int snapshotSize,
+            @Value("${property.featured.candidate-pool:200}") int candidatePool,
+            @Value("${property.featured.decay:0.9}") double decay,
+            @Value("${property.featured.recency-half-life-hours:72}") double recencyHalfLifeHours,
+            @Value("${property.featured.popularity-weight:1.0}") double popularityWeight
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.snapshotSize = snapshotSize;
+        this.candidatePool = candidatePool;
+        this.decay = decay;
+        this.recencyHalfLifeHours = recencyHalfLifeHours;
+        this.popularityWeight = popularityWeight;
+    }
+
+    public void recordView(Long idProperty) {
+        if (idProperty != null) {
+            views.computeIfAbsent(idProperty, id -> new LongAdder()).increment();
+        }
+    }
+
+    public void recordSearchHits(List<PropertyResponseDTO> results) {
+        for (PropertyResponseDTO result : results) {
+            searchHits.computeIfAbsent(result.idProperty(), id -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * @return true once a snapshot has been built.
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Top listings of the current snapshot that are still available.
+     * @param limit Maximum number of listings.
+     */
+    public List<PropertyResponseDTO> featured(int limit) {
+        List<PropertyResponseDTO> current = snapshot;
+        if (current == null) {
+            return List.of();
+        }
+        return current.stream()
+                .filter(dto -> !availabilityIndex.isReady()
+                        || !availabilityIndex.isIndexable(dto.idProperty())
+                        || availabilityIndex.isAvailable(dto.idProperty()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Folds the counters into the popularity scores and swaps in a freshly ranked snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${property.featured.rebuild-ms:60000}",
+            fixedDelayString = "${property.featured.rebuild-ms:60000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            flushCounters();
+
+            Map<Long, PropertyResponseDTO> candidates = new LinkedHashMap<>();
+            for (PropertyResponseDTO dto : propertyRepository.findMostRecentDtos(PageRequest.of(0, candidatePool))) {
+                candidates.put(dto.idProperty(), dto);
+            }
+            List<Long> popularIds = popularity.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                    .limit(candidatePool)
+                    .map(Map.Entry::getKey)
+                    .filter(id -> !candidates.containsKey(id))
+                    .collect(Collectors.toList());
+            if (!popularIds.isEmpty()) {
+                for (PropertyResponseDTO dto : propertyRepository.findDtosByIdIn(popularIds)) {
+                    if (Boolean.TRUE.equals(dto.isActive()) && Boolean.TRUE.equals(dto.isAvailable())) {
+                        candidates.put(dto.idProperty(), dto);
+                    }
+                }
+            }
+
+            double maxPopularity = popularity.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, Double> scores = new HashMap<>();
+            for (PropertyResponseDTO dto : candidates.values()) {
+                scores.put(dto.idProperty(), score(dto, now, maxPopularity));
+            }
+
+            List<PropertyResponseDTO> ranked = new ArrayList<>(candidates.values());
+            ranked.sort(Comparator.<PropertyResponseDTO>comparingDouble(dto -> scores.get(dto.idProperty())).reversed()
+                    .thenComparing(PropertyResponseDTO::idProperty, Comparator.reverseOrder()));
+            snapshot = List.copyOf(ranked.subList(0, Math.min(snapshotSize, ranked.size())));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to rebuild featured listings: " + e.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void flushCounters() {
+        popularity.replaceAll((id, score) -> score * decay);
+        drain(views, VIEW_WEIGHT);
+        drain(searchHits, SEARCH_HIT_WEIGHT);
+        popularity.values().removeIf(score -> score < MIN_SCORE);
+    }
+
+    private void drain(ConcurrentHashMap<Long, LongAdder> counters, double weight) {
+        counters.forEach((id, adder) -> {
+            long count = adder.sumThenReset();
+            if (count > 0) {
+                popularity.merge(id, count * weight, Double::sum);
+            }
+        });
+    }
+
+    /**
+     * Recency in (0, 1], halved every half-life, plus the popularity normalized against the most popular listing.
+     */
+    private double score(PropertyResponseDTO dto, LocalDateTime now, double maxPopularity) {
+        double recency = 0;
+        if (dto.createdAt() != null) {
+            double ageHours = Math.max(0, Duration.between(dto.createdAt(), now).toMinutes() / 60.0);
+            recency = Math.pow(0.5, ageHours / recencyHalfLifeHours);
+        }
+        double normalizedPopularity = maxPopularity > 0
+                ? Math.log1p(popularity.getOrDefault(dto.idProperty(), 0.0)) / Math.log1p(maxPopularity)
+                : 0;
+        return recency + popularityWeight * normalizedPopularity;
+    }
+}
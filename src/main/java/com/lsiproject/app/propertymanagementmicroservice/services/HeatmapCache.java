@@ -0,0 +1,125 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.lsiproject.app.propertymanagementmicroservice.Enums.TypeOfRental;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.HeatmapResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.openFeignClients.HeatMapPredictionClient;
+import com.lsiproject.app.propertymanagementmicroservice.utils.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last good market heatmap of each rental type, served without waiting on the AI service.
+ * Heatmaps are refreshed in the background on a schedule, when a read finds them stale and on demand;
+ * concurrent refreshes of a type share a single upstream call, and a failed refresh keeps the previous heatmap.
+ */
+@Component
+public class HeatmapCache {
+
+    public static final String SOURCE_AI = "ai";
+    public static final String SOURCE_LOCAL = "local";
+
+    /**
+     * A heatmap, the time it was computed and where it comes from ({@link #SOURCE_AI} or {@link #SOURCE_LOCAL}).
+     */
+    public record CachedHeatmap(HeatmapResponseDTO heatmap, Instant fetchedAt, String source) {
+        public long ageSeconds() {
+            return Math.max(0, Duration.between(fetchedAt, Instant.now()).toSeconds());
+        }
+    }
+
+    private final HeatMapPredictionClient heatMapPredictionClient;
+    private final Duration staleAfter;
+    private final Duration coldLoadTimeout;
+
+    private final Map<TypeOfRental, CachedHeatmap> heatmaps = new ConcurrentHashMap<>();
+    private final Map<TypeOfRental, CompletableFuture<CachedHeatmap>> refreshes = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+
+    public HeatmapCache(
+            HeatMapPredictionClient heatMapPredictionClient,
+            @Value("${heatmap.cache.stale-after:5m}") Duration staleAfter,
+            @Value("${heatmap.cache.cold-load-timeout:5s}") Duration coldLoadTimeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.heatMapPredictionClient = heatMapPredictionClient;
+        this.staleAfter = staleAfter;
+        this.coldLoadTimeout = coldLoadTimeout;
+        this.refreshExecutor = Executors.newFixedThreadPool(TypeOfRental.values().length,
+                ThreadFactories.named("heatmap-refresh-", virtualThreads));
+    }
+
+    /**
+     * Returns the last good heatmap right away, starting a background refresh when it is stale.
+     * Only the very first read of a type waits for the AI service, up to the cold load timeout.
+     * @throws IllegalStateException If no heatmap of this type could be fetched yet.
+     */
+    public CachedHeatmap get(TypeOfRental type) {
+        CachedHeatmap cached = heatmaps.get(type);
+        if (cached != null) {
+            if (cached.ageSeconds() >= staleAfter.toSeconds()) {
+                refresh(type);
+            }
+            return cached;
+        }
+        try {
+            return refresh(type).get(coldLoadTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the " + type + " heatmap");
+        } catch (Exception e) {
+            throw new IllegalStateException("No " + type + " heatmap available yet", e);
+        }
+    }
+
+    /**
+     * Starts a refresh of the heatmap, or joins the one already running for this type.
+     */
+    public CompletableFuture<CachedHeatmap> refresh(TypeOfRental type) {
+        CompletableFuture<CachedHeatmap> refresh = refreshes.computeIfAbsent(type,
+                t -> CompletableFuture.supplyAsync(() -> fetch(t), refreshExecutor));
+        refresh.whenComplete((result, error) -> refreshes.remove(type, refresh));
+        return refresh;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${heatmap.cache.refresh-ms:300000}",
+            fixedDelayString = "${heatmap.cache.refresh-ms:300000}")
+    public void refreshAll() {
+        for (TypeOfRental type : TypeOfRental.values()) {
+            refresh(type);
+        }
+    }
+
+    private CachedHeatmap fetch(TypeOfRental type) {
+        try {
+            HeatmapResponseDTO heatmap = heatMapPredictionClient.getMarketHeatmap(type);
+            if (heatmap == null || heatmap.data() == null) {
+                throw new IllegalStateException("AI service returned an empty heatmap");
+            }
+            CachedHeatmap cached = new CachedHeatmap(heatmap, Instant.now(), SOURCE_AI);
+            heatmaps.put(type, cached);
+            return cached;
+        } catch (RuntimeException e) {
+            System.err.println("Failed to refresh the " + type + " heatmap: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,259 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.HeatmapPointDTO;
+import com.lsiproject.app.propertymanagementmicroservice.Enums.TypeOfRental;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.HeatmapResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.configuration.ReplicaRoutingDataSource;
+import com.lsiproject.app.propertymanagementmicroservice.events.PropertyChangedEvent;
+import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
+import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
+import com.lsiproject.app.propertymanagementmicroservice.utils.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Market heatmap computed from our own active listings, without the AI service.
+ * Listings are aggregated per rental type into geohash cells at each configured precision
+ * (count, mean and median rent, centroid). Built at startup and updated incrementally from
+ * {@link PropertyChangedEvent}s, so a heatmap is read straight from memory.
+ */
+@Component
+public class LocalHeatmapEngine {
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyMapper propertyMapper;
+    private final int[] precisions;
+    private final int defaultPrecision;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One map per rental type, then one per precision, keyed by geohash
+    private final Map<TypeOfRental, Map<Integer, Map<String, Bucket>>> buckets = new EnumMap<>(TypeOfRental.class);
+    private final Map<Long, Listing> listings = new HashMap<>();
+    private volatile boolean ready = false;
+
+    public LocalHeatmapEngine(
+            PropertyRepository propertyRepository,
+            PropertyMapper propertyMapper,
+            @Value("${heatmap.local.precisions:4,5,6}") int[] precisions,
+            @Value("${heatmap.local.default-precision:5}") int defaultPrecision
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.propertyMapper = propertyMapper;
+        this.precisions = precisions.clone();
+        this.defaultPrecision = defaultPrecision;
+        for (TypeOfRental type : TypeOfRental.values()) {
+            Map<Integer, Map<String, Bucket>> byPrecision = new HashMap<>();
+            for (int precision : this.precisions) {
+                byPrecision.put(precision, new HashMap<>());
+            }
+            buckets.put(type, byPrecision);
+        }
+        if (!supports(defaultPrecision)) {
+            throw new IllegalArgumentException("heatmap.local.default-precision must be one of heatmap.local.precisions");
+        }
+    }
+
+    /**
+     * Aggregates every active listing with a location.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            // Loaded under the lock so that concurrent change events are applied after it
+            List<PropertyResponseDTO> properties = ReplicaRoutingDataSource.readFromPrimary(
+                    propertyRepository::findActiveDtosWithLocation);
+
+            buckets.values().forEach(byPrecision -> byPrecision.values().forEach(Map::clear));
+            listings.clear();
+            for (PropertyResponseDTO dto : properties) {
+                add(dto);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the changed listing to its new cells once its transaction is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        // From the primary: the change was just committed there
+        PropertyResponseDTO dto = ReplicaRoutingDataSource.readFromPrimary(
+                        () -> propertyRepository.findById(event.idProperty()))
+                .map(propertyMapper::toDto)
+                .orElse(null);
+
+        lock.writeLock().lock();
+        try {
+            remove(event.idProperty());
+            if (dto != null) {
+                add(dto);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true once the startup load is done and heatmaps can be answered from memory.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getDefaultPrecision() {
+        return defaultPrecision;
+    }
+
+    public boolean supports(int precision) {
+        for (int supported : precisions) {
+            if (supported == precision) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One point per non-empty geohash cell, ordered by geohash.
+     * @param precision Geohash length, one of heatmap.local.precisions.
+     * @throws IllegalArgumentException If the precision is not aggregated.
+     */
+    public HeatmapResponseDTO heatmap(TypeOfRental type, int precision) {
+        if (!supports(precision)) {
+            throw new IllegalArgumentException("Unsupported heatmap precision: " + precision);
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Bucket> cells = new TreeMap<>(buckets.get(type).get(precision));
+            List<HeatmapPointDTO> points = new ArrayList<>(cells.size());
+            cells.forEach((geohash, bucket) -> points.add(bucket.toPoint(geohash)));
+            return new HeatmapResponseDTO(type, points);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Internal structure (callers hold the write lock) ---
+
+    private void add(PropertyResponseDTO dto) {
+        if (!Boolean.TRUE.equals(dto.isActive()) || dto.latitude() == null || dto.longitude() == null
+                || dto.rentAmount() == null || dto.typeOfRental() == null) {
+            return;
+        }
+        Listing listing = new Listing(dto.typeOfRental(), dto.rentAmount(), dto.latitude(), dto.longitude(),
+                GeoUtils.encodeGeohash(dto.latitude(), dto.longitude(), maxPrecision()));
+        Map<Integer, Map<String, Bucket>> byPrecision = buckets.get(listing.type());
+        for (int precision : precisions) {
+            byPrecision.get(precision)
+                    .computeIfAbsent(listing.geohash().substring(0, precision), geohash -> new Bucket())
+                    .add(listing);
+        }
+        listings.put(dto.idProperty(), listing);
+    }
+
+    private void remove(Long idProperty) {
+        Listing listing = listings.remove(idProperty);
+        if (listing == null) {
+            return;
+        }
+        Map<Integer, Map<String, Bucket>> byPrecision = buckets.get(listing.type());
+        for (int precision : precisions) {
+            Map<String, Bucket> cells = byPrecision.get(precision);
+            String geohash = listing.geohash().substring(0, precision);
+            Bucket bucket = cells.get(geohash);
+            if (bucket != null && bucket.remove(listing)) {
+                cells.remove(geohash);
+            }
+        }
+    }
+
+    private int maxPrecision() {
+        int max = 1;
+        for (int precision : precisions) {
+            max = Math.max(max, precision);
+        }
+        return max;
+    }
+
+    private record Listing(TypeOfRental type, long rent, double latitude, double longitude, String geohash) {
+    }
+
+    /**
+     * Running aggregates of one geohash cell; rents are kept as a sorted multiset for the median.
+     */
+    private static final class Bucket {
+        int count = 0;
+        // Rents may be in Wei: a long sum could overflow
+        double rentSum = 0;
+        double latitudeSum = 0;
+        double longitudeSum = 0;
+        final TreeMap<Long, Integer> rents = new TreeMap<>();
+
+        void add(Listing listing) {
+            count++;
+            rentSum += listing.rent();
+            latitudeSum += listing.latitude();
+            longitudeSum += listing.longitude();
+            rents.merge(listing.rent(), 1, Integer::sum);
+        }
+
+        /**
+         * @return true if the bucket is now empty.
+         */
+        boolean remove(Listing listing) {
+            count--;
+            rentSum -= listing.rent();
+            latitudeSum -= listing.latitude();
+            longitudeSum -= listing.longitude();
+            rents.computeIfPresent(listing.rent(), (rent, n) -> n > 1 ? n - 1 : null);
+            return count == 0;
+        }
+
+        HeatmapPointDTO toPoint(String geohash) {
+            return new HeatmapPointDTO(
+                    geohash,
+                    latitudeSum / count,
+                    longitudeSum / count,
+                    rentSum / count,
+                    null,
+                    null,
+                    count,
+                    median()
+            );
+        }
+
+        private double median() {
+            // Walk the sorted rents up to the middle element(s)
+            int lowerIndex = (count - 1) / 2;
+            int upperIndex = count / 2;
+            Long lower = null;
+            int seen = 0;
+            for (Map.Entry<Long, Integer> entry : rents.entrySet()) {
+                seen += entry.getValue();
+                if (lower == null && seen > lowerIndex) {
+                    lower = entry.getKey();
+                }
+                if (seen > upperIndex) {
+                    return (lower + entry.getKey()) / 2.0;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.PricePredictionRequestDTO;
+import com.lsiproject.app.propertymanagementmicroservice.Enums.TypeOfRental;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PricePredictionBatchResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PricePredictionResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
+import com.lsiproject.app.propertymanagementmicroservice.utils.ThreadFactories;
+import feign.Request;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Fans price suggestions for many properties out to the ML service in parallel.
+ * A fixed pool shared by every batch caps the number of concurrent model calls, each call
+ * carries its own connect/read timeout, and a batch returns whatever completed by its deadline.
+ */
+@Component
+public class PricePredictionBatcher {
+
+    private final PricePredictionCache pricePredictionCache;
+    private final PropertyMapper propertyMapper;
+    private final Request.Options callOptions;
+    private final Duration deadline;
+    private final ThreadPoolExecutor executor;
+
+    public PricePredictionBatcher(
+            PricePredictionCache pricePredictionCache,
+            PropertyMapper propertyMapper,
+            @Value("${price-prediction.batch.concurrency:8}") int concurrency,
+            @Value("${price-prediction.batch.queue-capacity:500}") int queueCapacity,
+            @Value("${price-prediction.batch.call-timeout:3s}") Duration callTimeout,
+            @Value("${price-prediction.batch.deadline:10s}") Duration deadline,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.pricePredictionCache = pricePredictionCache;
+        this.propertyMapper = propertyMapper;
+        this.callOptions = new Request.Options(
+                callTimeout.toMillis(), TimeUnit.MILLISECONDS, callTimeout.toMillis(), TimeUnit.MILLISECONDS, true);
+        this.deadline = deadline;
+        // Full queue: the submission is rejected and the property reported as failed
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), ThreadFactories.named("price-prediction-", virtualThreads));
+    }
+
+    /**
+     * Predicts the price of every property, using the daily or monthly model per rental type.
+     * @return The suggestions obtained before the deadline, and the IDs of the properties without one.
+     */
+    public PricePredictionBatchResponseDTO predictAll(List<Property> properties) {
+        List<CompletableFuture<PricePredictionResponseDTO>> futures = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            // Inputs are read here: the entity must not be touched from the pool threads
+            PricePredictionRequestDTO request = propertyMapper.toPricePredictionRequest(property);
+            TypeOfRental type = property.getTypeOfRental();
+            futures.add(submit(() -> pricePredictionCache.get(request, type, callOptions)));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Partial results: failures and late calls are reported per property below
+        }
+
+        Map<Long, PricePredictionResponseDTO> predictions = new LinkedHashMap<>();
+        List<Long> failedIds = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<PricePredictionResponseDTO> future = futures.get(i);
+            Long idProperty = properties.get(i).getIdProperty();
+            if (future.isDone() && !future.isCompletedExceptionally() && future.join() != null) {
+                predictions.put(idProperty, future.join());
+            } else {
+                // Skips the call if it is still queued
+                future.cancel(false);
+                failedIds.add(idProperty);
+            }
+        }
+        if (!failedIds.isEmpty()) {
+            System.err.println("Price prediction failed or timed out for properties " + failedIds);
+        }
+        return new PricePredictionBatchResponseDTO(predictions, failedIds);
+    }
+
+    private CompletableFuture<PricePredictionResponseDTO> submit(
+            Supplier<PricePredictionResponseDTO> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,135 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.PricePredictionRequestDTO;
+import com.lsiproject.app.propertymanagementmicroservice.Enums.TypeOfRental;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PricePredictionResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.openFeignClients.PriceSuggestionClient;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Caches the ML price suggestions keyed by the normalized model inputs and the rental type,
+ * so identical properties (and an owner re-opening the pricing panel) share one inference.
+ * Concurrent misses on the same key share one future: the model call runs on the first caller's thread,
+ * outside the cache's locks, and the others wait for its result. Failures are not cached.
+ * An edited property computes a new key, its previous entry simply ages out.
+ */
+@Component
+public class PricePredictionCache {
+
+    // ~1m at the equator: coordinates re-typed by the owner still hit the same entry
+    private static final double COORDINATE_SCALE = 1e5;
+
+    private final PriceSuggestionClient priceSuggestionClient;
+    private final AsyncCache<PredictionKey, PricePredictionResponseDTO> predictions;
+
+    public PricePredictionCache(
+            PriceSuggestionClient priceSuggestionClient,
+            MeterRegistry meterRegistry,
+            @Value("${price-prediction.cache.max-size:10000}") long maxSize,
+            @Value("${price-prediction.cache.ttl:24h}") Duration ttl
+    ) {
+        this.priceSuggestionClient = priceSuggestionClient;
+        this.predictions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, predictions.synchronous(), "price-predictions");
+    }
+
+    /**
+     * Returns the cached suggestion for these inputs, calling the daily or monthly model on a miss.
+     */
+    public PricePredictionResponseDTO get(PricePredictionRequestDTO request, TypeOfRental type) {
+        return get(request, type, null);
+    }
+
+    /**
+     * @param options Connect/read timeouts of the model call on a miss, or null for the client defaults.
+     */
+    public PricePredictionResponseDTO get(PricePredictionRequestDTO request, TypeOfRental type,
+                                          Request.Options options) {
+        TypeOfRental route = (type == TypeOfRental.DAILY) ? TypeOfRental.DAILY : TypeOfRental.MONTHLY;
+        PredictionKey key = PredictionKey.of(request, route);
+
+        // Only registers the future under the key; the model call below runs without holding any lock
+        CompletableFuture<PricePredictionResponseDTO> call = new CompletableFuture<>();
+        CompletableFuture<PricePredictionResponseDTO> shared = predictions.get(key, (k, executor) -> call);
+        if (shared != call) {
+            return await(shared);
+        }
+
+        try {
+            PricePredictionResponseDTO prediction = predict(request, route, options);
+            call.complete(prediction);
+            return prediction;
+        } catch (Throwable e) {
+            // A failed future is removed from the cache, the next caller retries
+            call.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static PricePredictionResponseDTO await(CompletableFuture<PricePredictionResponseDTO> shared) {
+        try {
+            return shared.join();
+        } catch (CompletionException e) {
+            // Same exception as the caller that ran the model call
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private PricePredictionResponseDTO predict(PricePredictionRequestDTO request, TypeOfRental route,
+                                               Request.Options options) {
+        if (route == TypeOfRental.DAILY) {
+            return (options != null)
+                    ? priceSuggestionClient.predictDailyPrice(request, options)
+                    : priceSuggestionClient.predictDailyPrice(request);
+        }
+        return (options != null)
+                ? priceSuggestionClient.predictMonthlyPrice(request, options)
+                : priceSuggestionClient.predictMonthlyPrice(request);
+    }
+
+    /**
+     * Model inputs normalized so that cosmetic differences (case, blanks, coordinate noise) share an entry.
+     */
+    private record PredictionKey(TypeOfRental type, String city, String country, Long latitude, Long longitude,
+                                 Integer sqm, Integer totalRooms, Integer stars) {
+
+        static PredictionKey of(PricePredictionRequestDTO request, TypeOfRental type) {
+            return new PredictionKey(
+                    type,
+                    normalize(request.getCity()),
+                    normalize(request.getCountry()),
+                    round(request.getLatitude()),
+                    round(request.getLongitude()),
+                    request.getSqm(),
+                    request.getTotal_rooms(),
+                    request.getNombre_etoiles()
+            );
+        }
+
+        private static String normalize(String value) {
+            return (value != null) ? value.trim().toLowerCase(Locale.ROOT) : null;
+        }
+
+        private static Long round(Double coordinate) {
+            return (coordinate != null) ? Math.round(coordinate * COORDINATE_SCALE) : null;
+        }
+    }
+}
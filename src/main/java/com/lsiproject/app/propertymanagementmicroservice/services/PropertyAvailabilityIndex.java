@@ -0,0 +1,156 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.lsiproject.app.propertymanagementmicroservice.configuration.ReplicaRoutingDataSource;
+import com.lsiproject.app.propertymanagementmicroservice.events.PropertyChangedEvent;
+import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory set of the available property IDs, one bit per idProperty, so the
+ * isAvailable checks of the rental agreement service never reach MySQL.
+ * Loaded at startup, written through from {@link PropertyChangedEvent}s once their
+ * transaction commits, and resynchronized periodically as a safety net.
+ */
+@Component
+public class PropertyAvailabilityIndex {
+
+    private final PropertyRepository propertyRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private BitSet available = new BitSet();
+    // Changes applied while a reload query runs, replayed onto the reloaded set
+    private List<PropertyChangedEvent> pendingChanges;
+    private volatile boolean ready = false;
+
+    public PropertyAvailabilityIndex(PropertyRepository propertyRepository) {
+        this.propertyRepository = propertyRepository;
+    }
+
+    /**
+     * Reloads the set of available IDs from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${property.availability-index.resync-ms:300000}",
+            fixedDelayString = "${property.availability-index.resync-ms:300000}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // Queried outside the lock: lookups keep being served from the current set meanwhile
+            BitSet loaded = new BitSet();
+            List<Long> ids;
+            try {
+                // From the primary: a lagging replica would undo the changes already applied from events
+                ids = ReplicaRoutingDataSource.readFromPrimary(propertyRepository::findAvailableIds);
+            } catch (RuntimeException e) {
+                clearPendingChanges();
+                throw e;
+            }
+            for (Long id : ids) {
+                if (isIndexable(id)) {
+                    loaded.set(id.intValue());
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (PropertyChangedEvent change : pendingChanges) {
+                    loaded.set(change.idProperty().intValue(), change.isAvailable());
+                }
+                pendingChanges = null;
+                available = loaded;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void clearPendingChanges() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.isAvailable() == null || !isIndexable(event.idProperty())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            available.set(event.idProperty().intValue(), event.isAvailable());
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true once the startup load is done and lookups can be answered from memory.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return Whether the ID can be held in the bitset; other IDs must be checked in the database.
+     */
+    public boolean isIndexable(Long idProperty) {
+        return idProperty != null && idProperty >= 0 && idProperty < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Only meaningful when {@link #isReady()} and {@link #isIndexable(Long)}.
+     */
+    public boolean isAvailable(Long idProperty) {
+        lock.readLock().lock();
+        try {
+            return available.get(idProperty.intValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up many IDs under a single read lock.
+     * @return One answer per ID, in order; false for IDs that are not indexable.
+     */
+    public boolean[] areAvailable(List<Long> ids) {
+        boolean[] answers = new boolean[ids.size()];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < answers.length; i++) {
+                Long id = ids.get(i);
+                answers[i] = isIndexable(id) && available.get(id.intValue());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,81 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
+import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the catalog as NDJSON (one PropertyResponseDTO per line) for partner and ML jobs.
+ * Rows are read through a forward-only cursor and written as they arrive, so heap use does
+ * not grow with the catalog size.
+ */
+@Service
+public class PropertyExportService {
+
+    // Rows between two flushes of the response
+    private static final int FLUSH_EVERY = 500;
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyMapper propertyMapper;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PropertyExportService(
+            PropertyRepository propertyRepository,
+            PropertyMapper propertyMapper,
+            ObjectMapper objectMapper
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.propertyMapper = propertyMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every property (or those changed after updatedAfter) to the output stream, ordered by ID.
+     * @param updatedAfter Only export rows updated (or created, if never updated) after this instant; null for all.
+     * @param out The response stream; it is flushed but not closed.
+     * @return The number of exported rows.
+     */
+    @Transactional(readOnly = true)
+    public long exportCatalog(LocalDateTime updatedAfter, OutputStream out) throws IOException {
+        long exported = 0;
+
+        try (Stream<Property> rows = (updatedAfter == null)
+                     ? propertyRepository.streamAllByOrderByIdPropertyAsc()
+                     : propertyRepository.streamChangedAfter(updatedAfter);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<Property> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Property property = iterator.next();
+                generator.writeObject(propertyMapper.toDto(property));
+                generator.writeRaw('\n');
+
+                // Nothing is kept in the persistence context once the row is written
+                entityManager.detach(property);
+
+                if (++exported % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return exported;
+    }
+}
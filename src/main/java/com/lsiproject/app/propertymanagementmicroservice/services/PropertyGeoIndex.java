@@ -0,0 +1,414 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyDistanceResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.configuration.ReplicaRoutingDataSource;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import com.lsiproject.app.propertymanagementmicroservice.events.PropertyChangedEvent;
+import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
+import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
+import com.lsiproject.app.propertymanagementmicroservice.searchDTOs.PropertySearchDTO;
+import com.lsiproject.app.propertymanagementmicroservice.utils.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid index of the listings that can be rented right now (isActive && isAvailable).
+ * Coordinates, rent and rental type are kept in primitive arrays per grid cell so radius
+ * searches from the map view never hit MySQL. Built at startup and updated incrementally
+ * from {@link PropertyChangedEvent}s.
+ */
+@Component
+public class PropertyGeoIndex {
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyMapper propertyMapper;
+    private final double cellSizeDegrees;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<Long, Long> cellKeyById = new HashMap<>();
+    private final Map<Long, PropertyResponseDTO> snapshots = new HashMap<>();
+    private volatile boolean ready = false;
+
+    public PropertyGeoIndex(
+            PropertyRepository propertyRepository,
+            PropertyMapper propertyMapper,
+            @Value("${property.geo-index.cell-size-degrees:0.05}") double cellSizeDegrees
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.propertyMapper = propertyMapper;
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    /**
+     * Loads every active and available property into the grid.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            // Loaded under the lock so that concurrent change events are applied after it
+            List<Property> properties = ReplicaRoutingDataSource.readFromPrimary(
+                    propertyRepository::findAllByIsActiveTrueAndIsAvailableTrue);
+
+            cells.clear();
+            cellKeyById.clear();
+            snapshots.clear();
+            for (Property property : properties) {
+                insert(propertyMapper.toDto(property));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads the changed property once its transaction is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        // From the primary: the change was just committed there
+        ReplicaRoutingDataSource.readFromPrimary(() -> propertyRepository.findById(event.idProperty()))
+                .ifPresentOrElse(this::upsert, () -> remove(event.idProperty()));
+    }
+
+    /**
+     * Inserts or replaces a property, dropping it if it is no longer rentable.
+     */
+    public void upsert(Property property) {
+        PropertyResponseDTO dto = propertyMapper.toDto(property);
+
+        lock.writeLock().lock();
+        try {
+            delete(dto.idProperty());
+            if (isIndexable(dto)) {
+                insert(dto);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long idProperty) {
+        lock.writeLock().lock();
+        try {
+            delete(idProperty);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true once the startup load is done and searches can be answered from memory.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Answers a radius search with the same filters as PropertySpecification.
+     * @param criteria Search criteria, latitude and longitude are required.
+     * @return Matching active and available properties, in no particular order.
+     */
+    public List<PropertyResponseDTO> search(PropertySearchDTO criteria) {
+        double latitude = criteria.getLatitude();
+        double longitude = criteria.getLongitude();
+        double radiusInKm = radiusOf(criteria);
+        SearchFilter filter = SearchFilter.of(criteria);
+
+        double latDelta = GeoUtils.latitudeDelta(radiusInKm);
+        double lonDelta = Math.min(180.0, GeoUtils.longitudeDelta(latitude, radiusInKm));
+
+        // Rows beyond the poles hold no listing
+        int minLatCell = cellIndex(Math.max(-90.0, latitude - latDelta));
+        int maxLatCell = cellIndex(Math.min(90.0, latitude + latDelta));
+        int minLonCell = cellIndex(longitude - lonDelta);
+        // Never visit the same column twice when the box wraps the whole parallel
+        int maxLonCell = Math.min(cellIndex(longitude + lonDelta), minLonCell + cellsPerTurn() - 1);
+
+        List<PropertyResponseDTO> results = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+                for (int lonCell = minLonCell; lonCell <= maxLonCell; lonCell++) {
+                    Cell cell = cells.get(cellKey(latCell, wrapLonCell(lonCell)));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < cell.size; i++) {
+                        if (!matches(cell, i, filter)) {
+                            continue;
+                        }
+                        if (GeoUtils.distanceKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]) >= radiusInKm) {
+                            continue;
+                        }
+                        results.add(snapshots.get(cell.ids[i]));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Returns the k listings closest to the search point that pass the search filters,
+     * sorted by distance. Cells are visited ring by ring around the point and a bounded
+     * max-heap keeps the k best candidates; the walk stops as soon as no unvisited ring
+     * can hold a closer listing, so the cost depends on k and not on the radius population.
+     * @param criteria Search criteria, latitude and longitude are required; radiusInKm caps the distance.
+     * @param k Maximum number of listings to return.
+     * @return Up to k listings with their distance in KM, closest first.
+     */
+    public List<PropertyDistanceResponseDTO> nearest(PropertySearchDTO criteria, int k) {
+        double latitude = criteria.getLatitude();
+        double longitude = criteria.getLongitude();
+        double radiusInKm = radiusOf(criteria);
+        SearchFilter filter = SearchFilter.of(criteria);
+
+        int centerLatCell = cellIndex(latitude);
+        int centerLonCell = cellIndex(longitude);
+        // Cells further than these offsets are beyond the radius (the listing's own cell adds at most one)
+        int maxLatRing = (int) Math.ceil(GeoUtils.latitudeDelta(radiusInKm) / cellSizeDegrees) + 1;
+        int maxLonRing = Math.min(cellsPerTurn() / 2,
+                (int) Math.ceil(GeoUtils.longitudeDelta(latitude, radiusInKm) / cellSizeDegrees) + 1);
+        int maxRing = Math.max(maxLatRing, maxLonRing);
+        int southPoleCell = cellIndex(-90.0);
+        int northPoleCell = cellIndex(90.0);
+
+        // Max-heap on distance: the head is the worst of the current k best
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(k + 1, Comparator.reverseOrder());
+
+        lock.readLock().lock();
+        try {
+            for (int ring = 0; ring <= maxRing; ring++) {
+                // Rows beyond the poles or the radius are skipped, and so are columns beyond the radius
+                int minDLat = Math.max(-Math.min(ring, maxLatRing), southPoleCell - centerLatCell);
+                int maxDLat = Math.min(Math.min(ring, maxLatRing), northPoleCell - centerLatCell);
+                int lonReach = Math.min(ring, maxLonRing);
+                for (int dLat = minDLat; dLat <= maxDLat; dLat++) {
+                    boolean edgeRow = Math.abs(dLat) == ring;
+                    if (!edgeRow && ring > maxLonRing) {
+                        continue;
+                    }
+                    // Inner rows only contribute their two edge columns
+                    int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                    for (int dLon = -lonReach; dLon <= lonReach; dLon += step) {
+                        // Same column as -dLon across the antimeridian, already visited
+                        if (dLon > 0 && 2 * dLon >= cellsPerTurn()) {
+                            continue;
+                        }
+                        Cell cell = cells.get(cellKey(centerLatCell + dLat, wrapLonCell(centerLonCell + dLon)));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int i = 0; i < cell.size; i++) {
+                            if (!matches(cell, i, filter)) {
+                                continue;
+                            }
+                            double distance = GeoUtils.distanceKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]);
+                            if (distance >= radiusInKm) {
+                                continue;
+                            }
+                            heap.offer(new Candidate(distance, cell.ids[i]));
+                            if (heap.size() > k) {
+                                heap.poll();
+                            }
+                        }
+                    }
+                }
+
+                // Every cell outside this ring is at least `ring` cells away from the search point
+                double unvisitedKm = ring * cellSizeDegrees * GeoUtils.KM_PER_DEGREE * edgeCosine(latitude, ring + 1);
+                if (unvisitedKm >= radiusInKm) {
+                    break;
+                }
+                if (heap.size() == k && heap.peek().distanceKm() <= unvisitedKm) {
+                    break;
+                }
+            }
+
+            List<Candidate> ordered = new ArrayList<>(heap);
+            ordered.sort(Comparator.naturalOrder());
+
+            List<PropertyDistanceResponseDTO> results = new ArrayList<>(ordered.size());
+            for (Candidate candidate : ordered) {
+                results.add(new PropertyDistanceResponseDTO(snapshots.get(candidate.idProperty()), candidate.distanceKm()));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean matches(Cell cell, int i, SearchFilter filter) {
+        if (cell.rents[i] < filter.minRent() || cell.rents[i] > filter.maxRent()) {
+            return false;
+        }
+        if (filter.rentalType() >= 0 && cell.rentalTypes[i] != filter.rentalType()) {
+            return false;
+        }
+        if (filter.city() != null) {
+            String city = snapshots.get(cell.ids[i]).city();
+            return city != null && city.equalsIgnoreCase(filter.city());
+        }
+        return true;
+    }
+
+    private static double radiusOf(PropertySearchDTO criteria) {
+        return (criteria.getRadiusInKm() != null) ? criteria.getRadiusInKm() : 5.0;
+    }
+
+    /**
+     * Cosine of the latitude furthest from the equator within `rings` cells of the point,
+     * used to shrink longitude distances conservatively.
+     */
+    private double edgeCosine(double latitude, int rings) {
+        double edgeLatitude = Math.min(89.9, Math.abs(latitude) + rings * cellSizeDegrees);
+        return Math.cos(Math.toRadians(edgeLatitude));
+    }
+
+    /**
+     * Search filters other than the location, resolved once per query.
+     */
+    private record SearchFilter(long minRent, long maxRent, int rentalType, String city) {
+
+        static SearchFilter of(PropertySearchDTO criteria) {
+            return new SearchFilter(
+                    (criteria.getMinRentAmount() != null) ? criteria.getMinRentAmount() : Long.MIN_VALUE,
+                    (criteria.getMaxRentAmount() != null) ? criteria.getMaxRentAmount() : Long.MAX_VALUE,
+                    (criteria.getTypeOfRental() != null) ? criteria.getTypeOfRental().ordinal() : -1,
+                    (criteria.getCity() != null && !criteria.getCity().isEmpty()) ? criteria.getCity() : null
+            );
+        }
+    }
+
+    /**
+     * A kNN candidate, ordered by distance then ID so ties are stable.
+     */
+    private record Candidate(double distanceKm, long idProperty) implements Comparable<Candidate> {
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byDistance = Double.compare(distanceKm, other.distanceKm);
+            return byDistance != 0 ? byDistance : Long.compare(idProperty, other.idProperty);
+        }
+    }
+
+    // --- Internal structure (callers hold the write lock) ---
+
+    private boolean isIndexable(PropertyResponseDTO dto) {
+        return Boolean.TRUE.equals(dto.isActive())
+                && Boolean.TRUE.equals(dto.isAvailable())
+                && dto.latitude() != null
+                && dto.longitude() != null;
+    }
+
+    private void insert(PropertyResponseDTO dto) {
+        if (!isIndexable(dto)) {
+            return;
+        }
+        long key = cellKey(cellIndex(dto.latitude()), wrapLonCell(cellIndex(dto.longitude())));
+        cells.computeIfAbsent(key, k -> new Cell()).add(
+                dto.idProperty(),
+                dto.latitude(),
+                dto.longitude(),
+                dto.rentAmount() != null ? dto.rentAmount() : 0L,
+                (byte) (dto.typeOfRental() != null ? dto.typeOfRental().ordinal() : -1)
+        );
+        cellKeyById.put(dto.idProperty(), key);
+        snapshots.put(dto.idProperty(), dto);
+    }
+
+    private void delete(Long idProperty) {
+        Long key = cellKeyById.remove(idProperty);
+        snapshots.remove(idProperty);
+        if (key == null) {
+            return;
+        }
+        Cell cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(idProperty);
+            if (cell.size == 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / cellSizeDegrees);
+    }
+
+    private int cellsPerTurn() {
+        return (int) Math.ceil(360.0 / cellSizeDegrees);
+    }
+
+    private int wrapLonCell(int lonCell) {
+        int offset = cellIndex(-180.0);
+        return Math.floorMod(lonCell - offset, cellsPerTurn()) + offset;
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Column-oriented storage of the listings falling into one grid cell.
+     */
+    private static final class Cell {
+        long[] ids = new long[4];
+        double[] latitudes = new double[4];
+        double[] longitudes = new double[4];
+        long[] rents = new long[4];
+        byte[] rentalTypes = new byte[4];
+        int size = 0;
+
+        void add(long id, double latitude, double longitude, long rent, byte rentalType) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                rents = Arrays.copyOf(rents, capacity);
+                rentalTypes = Arrays.copyOf(rentalTypes, capacity);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            rents[size] = rent;
+            rentalTypes[size] = rentalType;
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    int last = size - 1;
+                    ids[i] = ids[last];
+                    latitudes[i] = latitudes[last];
+                    longitudes[i] = longitudes[last];
+                    rents[i] = rents[last];
+                    rentalTypes[i] = rentalTypes[last];
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
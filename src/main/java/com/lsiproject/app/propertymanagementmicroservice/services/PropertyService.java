@@ -1,36 +1,50 @@
 package com.lsiproject.app.propertymanagementmicroservice.services;
 
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.KeysetPage;
 import com.lsiproject.app.propertymanagementmicroservice.DTOs.PricePredictionRequestDTO;
 import com.lsiproject.app.propertymanagementmicroservice.DTOs.PropertyRecommendationRequestDTO;
-import com.lsiproject.app.propertymanagementmicroservice.DTOs.PropertyRecommendationResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.DTOs.UserManagementDto;
 import com.lsiproject.app.propertymanagementmicroservice.Enums.TypeOfRental;
-import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.HeatmapResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.AvailabilityBatchResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PricePredictionBatchResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PricePredictionResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyBulkResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyDistanceResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
 import com.lsiproject.app.propertymanagementmicroservice.UpdateDTOs.PropertyUpdateDTO;
 import com.lsiproject.app.propertymanagementmicroservice.CreationDTOs.PropertyCreationDTO;
 import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import com.lsiproject.app.propertymanagementmicroservice.events.PropertyChangedEvent;
 import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
-import com.lsiproject.app.propertymanagementmicroservice.openFeignClients.HeatMapPredictionClient;
-import com.lsiproject.app.propertymanagementmicroservice.openFeignClients.PriceSuggestionClient;
-import com.lsiproject.app.propertymanagementmicroservice.openFeignClients.PropertyRecommendationModel;
-import com.lsiproject.app.propertymanagementmicroservice.openFeignClients.UserManagementMicroService;
 import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
 import com.lsiproject.app.propertymanagementmicroservice.searchDTOs.PropertySearchDTO;
 import com.lsiproject.app.propertymanagementmicroservice.security.UserPrincipal;
-import com.lsiproject.app.propertymanagementmicroservice.wrappers.PropertyRecommendationResponseWrapper;
+import com.lsiproject.app.propertymanagementmicroservice.utils.GeoUtils;
+import com.lsiproject.app.propertymanagementmicroservice.utils.PageCursor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -43,11 +57,28 @@ public class PropertyService {
     private final PropertyRepository propertyRepository;
     private final SupabaseStorageService storageService;
     private final RoomService roomService;
-    private final UserManagementMicroService userManagementClient;
-    private final PropertyRecommendationModel recommendationClient;
+    private final UserProfileCache userProfileCache;
+    private final RecommendationCache recommendationCache;
     private final PropertyMapper propertyMapper;
-    private final HeatMapPredictionClient heatMapPredictionClient;
-    private final PriceSuggestionClient priceSuggestionClient;
+    private final HeatmapCache heatmapCache;
+    private final LocalHeatmapEngine localHeatmapEngine;
+    private final PricePredictionCache pricePredictionCache;
+    private final PricePredictionBatcher pricePredictionBatcher;
+    private final PropertyGeoIndex propertyGeoIndex;
+    private final PropertyAvailabilityIndex availabilityIndex;
+    private final FeaturedListingsEngine featuredListings;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxNearestResults;
+    private final double maxRadiusKm;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final long catalogCountRefreshMillis;
+    private final int maxAvailabilityBatchSize;
+    private final int maxBulkIds;
+    private final int featuredSize;
+
+    private volatile long catalogCount;
+    private volatile long catalogCountAt = Long.MIN_VALUE / 2;
 
 
     public PropertyService(
@@ -55,11 +86,25 @@ public class PropertyService {
             RoomService roomService,
             @Value("${contract.rental.address}") String contractAddress,
             SupabaseStorageService storageService,
-            UserManagementMicroService userManagementClient,
-            PropertyRecommendationModel recommendationClient,
+            UserProfileCache userProfileCache,
+            RecommendationCache recommendationCache,
             PropertyMapper propertyMapper,
-            HeatMapPredictionClient heatMapPredictionClient,
-            PriceSuggestionClient priceSuggestionClient
+            HeatmapCache heatmapCache,
+            LocalHeatmapEngine localHeatmapEngine,
+            PricePredictionCache pricePredictionCache,
+            PricePredictionBatcher pricePredictionBatcher,
+            PropertyGeoIndex propertyGeoIndex,
+            PropertyAvailabilityIndex availabilityIndex,
+            FeaturedListingsEngine featuredListings,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${property.search.nearest.max-results:100}") int maxNearestResults,
+            @Value("${property.search.max-radius-km:200}") double maxRadiusKm,
+            @Value("${property.pagination.default-size:50}") int defaultPageSize,
+            @Value("${property.pagination.max-size:500}") int maxPageSize,
+            @Value("${property.pagination.count-refresh-ms:30000}") long catalogCountRefreshMillis,
+            @Value("${property.availability.batch-max-size:1000}") int maxAvailabilityBatchSize,
+            @Value("${property.bulk.max-ids:500}") int maxBulkIds,
+            @Value("${property.featured.size:3}") int featuredSize
 
     ) {
         this.propertyRepository = propertyRepository;
@@ -68,23 +113,137 @@ public class PropertyService {
 
         this.storageService = storageService;
 
-        this.userManagementClient = userManagementClient;
-        this.recommendationClient = recommendationClient;
+        this.userProfileCache = userProfileCache;
+        this.recommendationCache = recommendationCache;
         this.propertyMapper = propertyMapper;
-        this.heatMapPredictionClient = heatMapPredictionClient;
-        this.priceSuggestionClient = priceSuggestionClient;
+        this.heatmapCache = heatmapCache;
+        this.localHeatmapEngine = localHeatmapEngine;
+        this.pricePredictionCache = pricePredictionCache;
+        this.pricePredictionBatcher = pricePredictionBatcher;
+        this.propertyGeoIndex = propertyGeoIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.featuredListings = featuredListings;
+        this.eventPublisher = eventPublisher;
+        this.maxNearestResults = maxNearestResults;
+        this.maxRadiusKm = maxRadiusKm;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.catalogCountRefreshMillis = catalogCountRefreshMillis;
+        this.maxAvailabilityBatchSize = maxAvailabilityBatchSize;
+        this.maxBulkIds = maxBulkIds;
+        this.featuredSize = featuredSize;
     }
 
     /**
-     * Searches for properties based on dynamic criteria (City, Rent, Type, Location).
+     * Searches for properties based on dynamic criteria (City, Rent, Type, Location), one keyset page at a time.
+     * Location searches are answered from the in-memory geo index once it is loaded and are ordered
+     * by distance; other searches are ordered from the newest listing.
      * @param searchDTO Object containing filter parameters.
-     * @return List of matching properties.
+     * @param cursor Opaque cursor returned with the previous page, null for the first page.
+     * @param size Requested page size, null for the default.
+     * @param withCount Whether to compute the total number of matches.
+     * @return One page of matching properties.
      */
-    public List<Property> searchProperties(PropertySearchDTO searchDTO) {
-        // Use the specification to build the query dynamically
-        return propertyRepository.findAll(
-                PropertySpecification.getPropertiesByCriteria(searchDTO)
-        );
+    @Transactional(readOnly = true)
+    public KeysetPage<PropertyResponseDTO> searchProperties(
+            PropertySearchDTO searchDTO, String cursor, Integer size, boolean withCount) {
+
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+
+        KeysetPage<PropertyResponseDTO> page;
+        if (searchDTO.getLatitude() != null && searchDTO.getLongitude() != null) {
+            checkRadius(searchDTO);
+            page = searchByDistance(searchDTO, after, pageSize, withCount);
+        } else {
+            // Use the specification to build the query dynamically
+            Specification<Property> criteria = PropertySpecification.getPropertiesByCriteria(searchDTO);
+            List<PropertyResponseDTO> rows = findNewestFirst(
+                    criteria.and(PropertySpecification.idBefore(after != null ? after.idProperty() : null)),
+                    pageSize
+            );
+            Long total = withCount ? propertyRepository.count(criteria) : null;
+            page = idKeysetPage(rows, pageSize, total);
+        }
+
+        featuredListings.recordSearchHits(page.items());
+        return page;
+    }
+
+    private KeysetPage<PropertyResponseDTO> searchByDistance(
+            PropertySearchDTO searchDTO, PageCursor after, int pageSize, boolean withCount) {
+
+        List<PropertyResponseDTO> matches = propertyGeoIndex.isReady()
+                ? propertyGeoIndex.search(searchDTO)
+                : propertyRepository.findDtos(PropertySpecification.getPropertiesByCriteria(searchDTO), Sort.unsorted());
+
+        List<PropertyDistanceResponseDTO> ranked = matches.stream()
+                .map(dto -> new PropertyDistanceResponseDTO(dto, GeoUtils.distanceKm(
+                        searchDTO.getLatitude(), searchDTO.getLongitude(), dto.latitude(), dto.longitude())))
+                .filter(candidate -> after == null || isAfter(candidate, after))
+                .sorted(Comparator.comparing(PropertyDistanceResponseDTO::distanceInKm)
+                        .thenComparing(candidate -> candidate.property().idProperty()))
+                .limit(pageSize + 1L)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (ranked.size() > pageSize) {
+            ranked = ranked.subList(0, pageSize);
+            PropertyDistanceResponseDTO last = ranked.get(pageSize - 1);
+            nextCursor = PageCursor.afterDistance(last.distanceInKm(), last.property().idProperty()).encode();
+        }
+
+        List<PropertyResponseDTO> items = ranked.stream()
+                .map(PropertyDistanceResponseDTO::property)
+                .collect(Collectors.toList());
+        return new KeysetPage<>(items, nextCursor, withCount ? (long) matches.size() : null);
+    }
+
+    /**
+     * The radius bounds the grid cells and the database range scanned for one search.
+     */
+    private void checkRadius(PropertySearchDTO searchDTO) {
+        Double radiusInKm = searchDTO.getRadiusInKm();
+        if (radiusInKm != null && !(radiusInKm > 0 && radiusInKm <= maxRadiusKm)) {
+            throw new IllegalArgumentException("radiusInKm must be greater than 0 and at most " + maxRadiusKm + ".");
+        }
+    }
+
+    private static boolean isAfter(PropertyDistanceResponseDTO candidate, PageCursor cursor) {
+        if (cursor.distanceInKm() == null) {
+            throw new IllegalArgumentException("Invalid pagination cursor.");
+        }
+        int byDistance = Double.compare(candidate.distanceInKm(), cursor.distanceInKm());
+        return byDistance > 0 || (byDistance == 0 && candidate.property().idProperty() > cursor.idProperty());
+    }
+
+    /**
+     * Finds the k closest active and available properties matching the search filters.
+     * @param searchDTO Search criteria, latitude and longitude are required.
+     * @param k Maximum number of properties to return.
+     * @return Up to k properties with their distance, closest first.
+     */
+    @Transactional(readOnly = true)
+    public List<PropertyDistanceResponseDTO> findNearestProperties(PropertySearchDTO searchDTO, int k) {
+        if (searchDTO.getLatitude() == null || searchDTO.getLongitude() == null) {
+            throw new IllegalArgumentException("Latitude and longitude are required for a nearest search.");
+        }
+        if (k < 1 || k > maxNearestResults) {
+            throw new IllegalArgumentException("k must be between 1 and " + maxNearestResults + ".");
+        }
+        checkRadius(searchDTO);
+
+        if (propertyGeoIndex.isReady()) {
+            return propertyGeoIndex.nearest(searchDTO, k);
+        }
+
+        // Index not loaded yet: rank the radius matches from the database
+        return propertyRepository.findDtos(PropertySpecification.getPropertiesByCriteria(searchDTO), Sort.unsorted()).stream()
+                .map(dto -> new PropertyDistanceResponseDTO(dto, GeoUtils.distanceKm(
+                        searchDTO.getLatitude(), searchDTO.getLongitude(), dto.latitude(), dto.longitude())))
+                .sorted(Comparator.comparing(PropertyDistanceResponseDTO::distanceInKm))
+                .limit(k)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -111,6 +270,7 @@ public class PropertyService {
         property.setAddress(dto.address());
         property.setLongitude(dto.longitude());
         property.setLatitude(dto.latitude());
+        property.setGeohash(computeGeohash(dto.latitude(), dto.longitude()));
         property.setDescription(dto.description());
         property.setSqM(dto.sqM());
         property.setTypeOfProperty(dto.typeOfProperty());
@@ -121,8 +281,11 @@ public class PropertyService {
         property.setOwnerEthAddress(ownerEthAddress);
         property.setIsActive(true);
         property.setIsAvailable(true);
+        property.setCreatedAt(LocalDateTime.now());
 
-        return propertyRepository.save(property);
+        Property saved = propertyRepository.save(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(saved.getIdProperty(), saved.getIsAvailable()));
+        return saved;
     }
 
 
@@ -163,6 +326,15 @@ public class PropertyService {
         if (dto.address() != null) {
             property.setAddress(dto.address());
         }
+        if (dto.latitude() != null) {
+            property.setLatitude(dto.latitude());
+        }
+        if (dto.longitude() != null) {
+            property.setLongitude(dto.longitude());
+        }
+        if (dto.latitude() != null || dto.longitude() != null) {
+            property.setGeohash(computeGeohash(property.getLatitude(), property.getLongitude()));
+        }
         if (dto.description() != null) {
             property.setDescription(dto.description());
         }
@@ -172,9 +344,7 @@ public class PropertyService {
         if (dto.SqM() != null) {
             property.setSqM(dto.SqM());
         }
-        if (dto.total_Rooms() != null) {
-            property.setTotal_Rooms(dto.total_Rooms());
-        }
+        // total_Rooms is derived from the rooms table and maintained by RoomService
         if (dto.rentAmount() != null) {
             property.setRentAmount(dto.rentAmount());
         }
@@ -187,26 +357,99 @@ public class PropertyService {
         if (dto.isAvailable() != null) {
             property.setIsAvailable(dto.isAvailable());
         }
+        property.setUpdatedAt(LocalDateTime.now());
+        Property saved = propertyRepository.save(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(saved.getIdProperty(), saved.getIsAvailable()));
+        return saved;
+    }
+
+    /**
+     * Fills the geohash column of rows created before it existed, so the indexed
+     * radius search does not miss them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillGeohashes() {
+        List<Property> properties = propertyRepository.findAllByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull();
+        for (Property property : properties) {
+            property.setGeohash(computeGeohash(property.getLatitude(), property.getLongitude()));
+        }
+        propertyRepository.saveAll(properties);
+    }
 
+    private String computeGeohash(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return GeoUtils.encodeGeohash(latitude, longitude, GeoUtils.STORED_GEOHASH_PRECISION);
+    }
 
-        property.setUpdatedAt(LocalDateTime.now());
-        return propertyRepository.save(property);
+    /**
+     * Marks a property as rented, in a single conditional UPDATE.
+     * @return true if the property was available, false if it already was unavailable.
+     * @throws ResponseStatusException (404) if the property does not exist.
+     */
+    @Transactional
+    public boolean updateAvailabilityToFalse(Long id) {
+        return transitionAvailability(id, false);
     }
 
-    public void updateAvailabilityToFalse(Long id) {
-        Property property = propertyRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    /**
+     * Marks a property as available again, in a single conditional UPDATE.
+     * @return true if the property was unavailable, false if it already was available.
+     * @throws ResponseStatusException (404) if the property does not exist.
+     */
+    @Transactional
+    public boolean updateAvailabilityToTrue(Long id) {
+        return transitionAvailability(id, true);
+    }
 
-        property.setIsAvailable(false);
-        propertyRepository.save(property);
+    private boolean transitionAvailability(Long id, boolean available) {
+        int[] counts = propertyRepository.updateAvailability(List.of(id), available, LocalDateTime.now());
+        if (!transitioned(counts[0])) {
+            if (!propertyRepository.existsById(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+            }
+            return false;
+        }
+        eventPublisher.publishEvent(new PropertyChangedEvent(id, available));
+        return true;
     }
 
-    public void updateAvailabilityToTrue(Long id) {
-        Property property = propertyRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    /**
+     * Sets the availability of many properties in one transaction, with JDBC batching.
+     * @param ids The property IDs, duplicates are ignored.
+     * @param available The target availability.
+     * @return The properties that switched state and the ones left untouched (already in that state or unknown).
+     */
+    @Transactional
+    public AvailabilityBatchResponseDTO updateAvailability(List<Long> ids, boolean available) {
+        List<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinctIds.isEmpty() || distinctIds.size() > maxAvailabilityBatchSize) {
+            throw new IllegalArgumentException("Between 1 and " + maxAvailabilityBatchSize + " property IDs are required.");
+        }
 
-        property.setIsAvailable(true);
-        propertyRepository.save(property);
+        int[] counts = propertyRepository.updateAvailability(distinctIds, available, LocalDateTime.now());
+        List<Long> changed = new ArrayList<>();
+        List<Long> unchanged = new ArrayList<>();
+        for (int i = 0; i < distinctIds.size(); i++) {
+            Long id = distinctIds.get(i);
+            if (transitioned(counts[i])) {
+                changed.add(id);
+                eventPublisher.publishEvent(new PropertyChangedEvent(id, available));
+            } else {
+                unchanged.add(id);
+            }
+        }
+        return new AvailabilityBatchResponseDTO(changed, unchanged);
+    }
+
+    private static boolean transitioned(int updateCount) {
+        // Drivers that rewrite batches may not report per-statement counts
+        return updateCount > 0 || updateCount == Statement.SUCCESS_NO_INFO;
     }
 
     public TypeOfRental getTypeOfRental(Long id) {
@@ -238,26 +481,143 @@ public class PropertyService {
         property.setIsAvailable(false);
         property.setUpdatedAt(LocalDateTime.now());
         propertyRepository.save(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(id, false));
+    }
+
+
+    /**
+     * Lists the whole catalog from the newest listing, one keyset page at a time.
+     * The ID is the keyset: it is generated in insertion order, so it sorts like the creation date
+     * without depending on createdAt being filled on older rows.
+     * @param cursor Opaque cursor returned with the previous page, null for the first page.
+     * @param size Requested page size, null for the default.
+     * @param withCount Whether to return the (approximate) catalog size.
+     * @return One page of properties.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<PropertyResponseDTO> getAllProperties(String cursor, Integer size, boolean withCount) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+
+        List<PropertyResponseDTO> rows = findNewestFirst(
+                PropertySpecification.idBefore(after != null ? after.idProperty() : null),
+                pageSize
+        );
+        return idKeysetPage(rows, pageSize, withCount ? approximateCatalogSize() : null);
     }
 
+    /**
+     * Fetches one row more than the page so that idKeysetPage knows whether a next page exists.
+     */
+    private List<PropertyResponseDTO> findNewestFirst(Specification<Property> spec, int pageSize) {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "idProperty");
+        return propertyRepository.findDtos(spec, newestFirst, pageSize + 1);
+    }
+
+    private KeysetPage<PropertyResponseDTO> idKeysetPage(List<PropertyResponseDTO> rows, int pageSize, Long total) {
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = PageCursor.afterId(rows.get(pageSize - 1).idProperty()).encode();
+        }
+        return new KeysetPage<>(rows, nextCursor, total);
+    }
+
+    /**
+     * Every listing is paged: full pulls go through the export stream instead.
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        return Math.min(size, maxPageSize);
+    }
 
-    public List<Property> getAllProperties() {
-        return propertyRepository.findAll();
+    /**
+     * Catalog size, recounted at most once per refresh interval.
+     */
+    private long approximateCatalogSize() {
+        long now = System.currentTimeMillis();
+        if (now - catalogCountAt > catalogCountRefreshMillis) {
+            catalogCount = propertyRepository.count();
+            catalogCountAt = now;
+        }
+        return catalogCount;
     }
 
     public boolean isPropertyAvailable(Long id){
-        return propertyRepository.existsByIdPropertyAndIsAvailableTrue(id);
+        if (availabilityIndex.isReady() && availabilityIndex.isIndexable(id)) {
+            return availabilityIndex.isAvailable(id);
+        }
+        // Served from the second-level cache, the exists query would always hit MySQL
+        return propertyRepository.findById(id)
+                .map(property -> Boolean.TRUE.equals(property.getIsAvailable()))
+                .orElse(false);
     }
 
     /**
-     * Récupère les 3 propriétés les plus récentes(just pour le moment, apres on vas utiliser un AI system pour ca) qui sont actives et disponibles.
+     * Bulk variant of isPropertyAvailable, answered from the availability index.
+     * @param ids The property IDs to check.
+     * @return One answer per ID, in the same order; false for unknown IDs.
      */
-    public List<Property> getMostRecentProperties() {
-        return propertyRepository.findTop3ByIsActiveTrueAndIsAvailableTrueOrderByCreatedAtDesc();
+    public boolean[] arePropertiesAvailable(List<Long> ids) {
+        if (ids.size() > maxAvailabilityBatchSize) {
+            throw new IllegalArgumentException("At most " + maxAvailabilityBatchSize + " property IDs can be checked at once.");
+        }
+        if (!availabilityIndex.isReady()) {
+            return availabilityFromDatabase(ids, ids);
+        }
+
+        boolean[] answers = availabilityIndex.areAvailable(ids);
+        List<Long> notIndexable = ids.stream()
+                .filter(id -> id != null && !availabilityIndex.isIndexable(id))
+                .collect(Collectors.toList());
+        if (!notIndexable.isEmpty()) {
+            boolean[] fromDatabase = availabilityFromDatabase(ids, notIndexable);
+            for (int i = 0; i < answers.length; i++) {
+                answers[i] |= fromDatabase[i];
+            }
+        }
+        return answers;
+    }
+
+    private boolean[] availabilityFromDatabase(List<Long> ids, List<Long> toQuery) {
+        List<Long> queried = toQuery.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Set<Long> availableIds = queried.isEmpty()
+                ? Set.of()
+                : new HashSet<>(propertyRepository.findAvailableIdsIn(queried));
+        boolean[] answers = new boolean[ids.size()];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = availableIds.contains(ids.get(i));
+        }
+        return answers;
     }
 
-    public List<Property> getPropertiesByOwnerId(Long ownerId) {
-        return propertyRepository.findAllByOwnerId(ownerId);
+    /**
+     * Récupère les propriétés mises en avant (actives et disponibles), classées par récence et popularité.
+     * Servies depuis le snapshot en mémoire de FeaturedListingsEngine; les plus récentes tant qu'il n'est pas construit.
+     */
+    @Transactional(readOnly = true)
+    public List<PropertyResponseDTO> getFeaturedProperties() {
+        if (featuredListings.isReady()) {
+            return featuredListings.featured(featuredSize);
+        }
+        return propertyRepository.findMostRecentDtos(PageRequest.of(0, featuredSize));
+    }
+
+    /**
+     * Counts a detail page view towards the featured listings ranking.
+     */
+    public void recordView(Long id) {
+        featuredListings.recordView(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PropertyResponseDTO> getPropertiesByOwnerId(Long ownerId) {
+        return propertyRepository.findDtosByOwnerId(ownerId);
     }
 
     /**
@@ -273,14 +633,64 @@ public class PropertyService {
     }
 
 
+    /**
+     * Resolves many properties in one call, for the other microservices.
+     * Database IDs are served from the second-level cache, the misses with a single IN query;
+     * on-chain IDs are resolved with a single IN query.
+     * @param ids Database IDs, or on-chain IDs when byOnChainId is set. Duplicates are collapsed.
+     * @param byOnChainId Whether the IDs are on-chain IDs.
+     * @return The properties found, in request order, and the requested IDs that do not exist.
+     */
+    @Transactional(readOnly = true)
+    public PropertyBulkResponseDTO getPropertiesByIds(List<Long> ids, boolean byOnChainId) {
+        List<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinctIds.size() > maxBulkIds) {
+            throw new IllegalArgumentException("At most " + maxBulkIds + " IDs can be fetched at once.");
+        }
+
+        List<PropertyResponseDTO> found = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        if (distinctIds.isEmpty()) {
+            return new PropertyBulkResponseDTO(found, missing);
+        }
+
+        if (byOnChainId) {
+            Map<Long, PropertyResponseDTO> byOnChainIdMap = propertyRepository.findDtosByOnChainIdIn(distinctIds).stream()
+                    .collect(Collectors.toMap(PropertyResponseDTO::onChainId, dto -> dto));
+            for (Long id : distinctIds) {
+                PropertyResponseDTO dto = byOnChainIdMap.get(id);
+                if (dto != null) {
+                    found.add(dto);
+                } else {
+                    missing.add(id);
+                }
+            }
+        } else {
+            List<Property> properties = propertyRepository.findAllInRequestOrder(distinctIds);
+            for (int i = 0; i < distinctIds.size(); i++) {
+                Property property = properties.get(i);
+                if (property != null) {
+                    found.add(propertyMapper.toDto(property));
+                } else {
+                    missing.add(distinctIds.get(i));
+                }
+            }
+        }
+        return new PropertyBulkResponseDTO(found, missing);
+    }
+
     public List<PropertyResponseDTO> getRecommendedProperties(UserPrincipal principal) {
-        // 1. Get User profile from UserManagement service
+        // 1. Get User profile (cached, reloaded from the UserManagement service in the background)
         UserManagementDto userProfile;
         try {
-            userProfile = userManagementClient.getUserById(principal.getIdUser());
+            userProfile = userProfileCache.get(principal.getIdUser());
         } catch (Exception e) {
-            System.err.println("Failed to fetch user profile: " + e.getMessage());
-            return new ArrayList<>(); // Or return getMostRecentProperties() converted to DTOs
+            // UserManagement down, or its circuit breaker/bulkhead rejected the call
+            System.err.println("Failed to fetch user profile, serving featured properties: " + e.getMessage());
+            return getFeaturedProperties();
         }
 
         if (userProfile == null) {
@@ -300,54 +710,72 @@ public class PropertyService {
                 false
         );
 
-        System.out.println("Request sent to the AI model: " + request);
-
-        // 3. Get recommended property IDs from AI Service (Using Wrapper)
-        List<PropertyRecommendationResponseDTO> aiResponses;
+        // 3. Get the ranked property IDs from the AI Service (cached per profile, refreshed in the background)
+        List<Long> propertyIds;
         try {
-            // CHANGED: Use the wrapper to handle {"recommendations": [...]}
-            PropertyRecommendationResponseWrapper wrapper = recommendationClient.recommend_properties(request);
-
-            if (wrapper == null || wrapper.getRecommendations() == null || wrapper.getRecommendations().isEmpty()) {
-                System.out.println("AI Model returned no recommendations.");
-                return new ArrayList<>();
-            }
-            aiResponses = wrapper.getRecommendations();
-
+            propertyIds = recommendationCache.get(request);
         } catch (Exception e) {
-            System.err.println("Recommendation AI Service failed: " + e.getMessage());
+            System.err.println("Recommendation AI Service failed, serving featured properties: " + e.getMessage());
+            return getFeaturedProperties();
+        }
+        if (propertyIds.isEmpty()) {
             return new ArrayList<>();
         }
 
-
-        // 4. Extract IDs
-        List<Long> propertyIds = aiResponses.stream()
-                .map(PropertyRecommendationResponseDTO::getProperty_id)
-                .collect(Collectors.toList());
-
-        // 5. Fetch properties from DB
-        List<Property> properties = propertyRepository.findAllByIdPropertyIn(propertyIds);
-
-        System.out.println(properties.toString());
-
-        // 6. Map to Response DTOs using your PropertyMapper
-        return properties.stream()
+        // 4. Hydrate from the property cache in the model's order, dropping listings no longer rentable
+        return propertyRepository.findAllInRequestOrder(propertyIds).stream()
+                .filter(Objects::nonNull)
+                .filter(property -> Boolean.TRUE.equals(property.getIsActive())
+                        && Boolean.TRUE.equals(property.getIsAvailable()))
                 .map(propertyMapper::toDto)
                 .collect(Collectors.toList());
     }
 
-    public HeatmapResponseDTO getHeatmap(TypeOfRental type) {
+    /**
+     * Last good market heatmap of the rental type, refreshed in the background.
+     * Falls back to the heatmap computed from our own listings when the AI service never answered.
+     */
+    public HeatmapCache.CachedHeatmap getHeatmap(TypeOfRental type) {
         try {
-            return heatMapPredictionClient.getMarketHeatmap(type);
-        } catch (Exception e) {
-            System.err.println("Failed to fetch heatmap from AI service: " + e.getMessage());
-            throw new RuntimeException("AI Service unavailable");
+            return heatmapCache.get(type);
+        } catch (IllegalStateException e) {
+            if (!localHeatmapEngine.isReady()) {
+                throw e;
+            }
+            System.err.println(e.getMessage() + ", serving the local heatmap.");
+            return getLocalHeatmap(type, localHeatmapEngine.getDefaultPrecision());
+        }
+    }
+
+    /**
+     * Market heatmap aggregated in memory from our own active listings.
+     * @param precision Geohash length of the cells.
+     * @throws IllegalArgumentException If the precision is not aggregated.
+     * @throws IllegalStateException If the listings are still being loaded.
+     */
+    public HeatmapCache.CachedHeatmap getLocalHeatmap(TypeOfRental type, int precision) {
+        if (!localHeatmapEngine.isReady()) {
+            throw new IllegalStateException("Local heatmap is not loaded yet");
         }
+        return new HeatmapCache.CachedHeatmap(
+                localHeatmapEngine.heatmap(type, precision), Instant.now(), HeatmapCache.SOURCE_LOCAL);
+    }
+
+    public int getDefaultLocalHeatmapPrecision() {
+        return localHeatmapEngine.getDefaultPrecision();
+    }
+
+    /**
+     * Asks the AI service for a fresh heatmap without waiting for it.
+     */
+    public void refreshHeatmap(TypeOfRental type) {
+        heatmapCache.refresh(type);
     }
 
     /**
      * Gets price prediction for a property from the ML-PriceSuggestion service.
      * Automatically selects monthly or daily prediction endpoint based on property's rental type.
+     * Predictions are cached by normalized inputs, see {@link PricePredictionCache}.
      * @param propertyId The ID of the property to predict price for
      * @return Price prediction response from ML service
      * @throws NoSuchElementException if property not found
@@ -358,27 +786,24 @@ public class PropertyService {
                 .orElseThrow(() -> new NoSuchElementException("Property not found."));
 
         // 2. Map property data to ML request DTO
-        PricePredictionRequestDTO request = new PricePredictionRequestDTO();
-        request.setCity(property.getCity());
-        request.setCountry(property.getCountry());
-        request.setLongitude(property.getLongitude());
-        request.setLatitude(property.getLatitude());
-        request.setSqm(property.getSqM());
-        request.setTotal_rooms(property.getTotal_Rooms());
-        request.setNombre_etoiles(property.getNombreEtoiles());
-
-        // 3. Call appropriate ML endpoint based on rental type
+        PricePredictionRequestDTO request = propertyMapper.toPricePredictionRequest(property);
+
+        // 3. Call appropriate ML endpoint based on rental type (monthly by default), unless already predicted
         try {
-            if (property.getTypeOfRental() == TypeOfRental.DAILY) {
-                return priceSuggestionClient.predictDailyPrice(request);
-            } else {
-                // Default to monthly prediction
-                return priceSuggestionClient.predictMonthlyPrice(request);
-            }
+            return pricePredictionCache.get(request, property.getTypeOfRental());
         } catch (Exception e) {
             System.err.println("Failed to fetch price prediction from ML service: " + e.getMessage());
             throw new RuntimeException("ML Price Suggestion Service unavailable");
         }
     }
 
+    /**
+     * Price suggestions for every property of an owner, fetched in parallel.
+     * @param ownerId The owner's user ID.
+     * @return The suggestions obtained in time, and the properties left without one.
+     */
+    public PricePredictionBatchResponseDTO getPricePredictionsByOwnerId(Long ownerId) {
+        return pricePredictionBatcher.predictAll(propertyRepository.findAllByOwnerId(ownerId));
+    }
+
 }
\ No newline at end of file
@@ -2,12 +2,16 @@ package com.lsiproject.app.propertymanagementmicroservice.services;
 
 import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
 import com.lsiproject.app.propertymanagementmicroservice.searchDTOs.PropertySearchDTO;
+import com.lsiproject.app.propertymanagementmicroservice.utils.GeoUtils;
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class PropertySpecification {
 
@@ -45,9 +49,12 @@ public class PropertySpecification {
             // --- GEOLOCATION FILTER (Haversine Formula) ---
 
             if (criteria.getLatitude() != null && criteria.getLongitude() != null) {
-                double earthRadius = 6371.0; // Radius of Earth in KM
+                double earthRadius = GeoUtils.EARTH_RADIUS_KM;
                 double searchRadius = (criteria.getRadiusInKm() != null) ? criteria.getRadiusInKm() : 5.0;
 
+                // Index-friendly pre-filters, evaluated before the exact distance check
+                predicates.addAll(boundingBoxPredicates(root, cb, criteria.getLatitude(), criteria.getLongitude(), searchRadius));
+
                 // Inputs from the user (converted to radians for the formula)
                 double userLatRad = Math.toRadians(criteria.getLatitude());
                 double userLonRad = Math.toRadians(criteria.getLongitude());
@@ -83,4 +90,45 @@ public class PropertySpecification {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Keyset condition for listings ordered by descending ID: rows after the given cursor.
+     */
+    public static Specification<Property> idBefore(Long idProperty) {
+        return (root, query, cb) -> idProperty == null ? null : cb.lessThan(root.get("idProperty"), idProperty);
+    }
+
+    /**
+     * Builds the coarse filters that let MySQL use the geohash and (latitude, longitude) indexes:
+     * a prefix match on the 9 geohash cells covering the circle, and a lat/lon bounding box.
+     * Both are supersets of the circle, the Haversine predicate stays the exact check.
+     */
+    private static List<Predicate> boundingBoxPredicates(
+            Root<Property> root, CriteriaBuilder cb, double latitude, double longitude, double radiusInKm) {
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        // 1. Geohash cells (LIKE 'prefix%' is a range scan on idx_properties_geohash)
+        int precision = GeoUtils.coveringGeohashPrecision(latitude, radiusInKm);
+        if (precision > 0) {
+            Set<String> cells = GeoUtils.coveringGeohashes(latitude, longitude, precision);
+            List<Predicate> cellPredicates = new ArrayList<>();
+            for (String cell : cells) {
+                cellPredicates.add(cb.like(root.get("geohash"), cell + "%"));
+            }
+            predicates.add(cb.or(cellPredicates.toArray(new Predicate[0])));
+        }
+
+        // 2. Latitude / longitude bounding box
+        double latDelta = GeoUtils.latitudeDelta(radiusInKm);
+        predicates.add(cb.between(root.get("latitude"), latitude - latDelta, latitude + latDelta));
+
+        double lonDelta = GeoUtils.longitudeDelta(latitude, radiusInKm);
+        // Skip the longitude bounds when the box crosses the antimeridian
+        if (longitude - lonDelta >= -180.0 && longitude + lonDelta <= 180.0) {
+            predicates.add(cb.between(root.get("longitude"), longitude - lonDelta, longitude + lonDelta));
+        }
+
+        return predicates;
+    }
 }
\ No newline at end of file
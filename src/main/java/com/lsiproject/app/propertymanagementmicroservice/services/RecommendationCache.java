@@ -0,0 +1,69 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.PropertyRecommendationRequestDTO;
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.PropertyRecommendationResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.openFeignClients.PropertyRecommendationModel;
+import com.lsiproject.app.propertymanagementmicroservice.wrappers.PropertyRecommendationResponseWrapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Caches the ranked property IDs returned by the recommendation model, keyed by the request
+ * sent to it (the profile fingerprint), so users sharing a profile share the answer.
+ * Only IDs are cached: callers hydrate them from the property cache on every call, which keeps
+ * the listings current without asking the model again.
+ */
+@Component
+public class RecommendationCache {
+
+    private final PropertyRecommendationModel recommendationClient;
+    private final LoadingCache<PropertyRecommendationRequestDTO, List<Long>> rankings;
+
+    public RecommendationCache(
+            PropertyRecommendationModel recommendationClient,
+            MeterRegistry meterRegistry,
+            @Value("${recommendation.result-cache.max-size:10000}") long maxSize,
+            @Value("${recommendation.result-cache.refresh-after:2m}") Duration refreshAfter,
+            @Value("${recommendation.result-cache.ttl:10m}") Duration ttl
+    ) {
+        this.recommendationClient = recommendationClient;
+        this.rankings = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::recommend);
+        CaffeineCacheMetrics.monitor(meterRegistry, rankings, "recommendations");
+    }
+
+    /**
+     * @return The recommended property IDs, best match first; empty if the model has no recommendation.
+     */
+    public List<Long> get(PropertyRecommendationRequestDTO request) {
+        return rankings.get(request);
+    }
+
+    private List<Long> recommend(PropertyRecommendationRequestDTO request) {
+        System.out.println("Request sent to the AI model: " + request);
+
+        // The model answers {"recommendations": [...]}, already sorted by similarity
+        PropertyRecommendationResponseWrapper wrapper = recommendationClient.recommend_properties(request);
+        if (wrapper == null || wrapper.getRecommendations() == null || wrapper.getRecommendations().isEmpty()) {
+            System.out.println("AI Model returned no recommendations.");
+            return List.of();
+        }
+        return wrapper.getRecommendations().stream()
+                .map(PropertyRecommendationResponseDTO::getProperty_id)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+}
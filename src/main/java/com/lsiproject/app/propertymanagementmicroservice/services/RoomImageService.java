@@ -116,7 +116,8 @@ public class RoomImageService {
      */
     public List<RoomImage> getImagesByRoomId(Long roomId) {
         // Ensure the parent room exists before querying for images
-        if (!roomRepository.existsById(roomId)) {
+        // findById is answered by the second-level cache, existsById always queries
+        if (roomRepository.findById(roomId).isEmpty()) {
             throw new NoSuchElementException("Room not found with ID: " + roomId + ". Cannot retrieve images.");
         }
 
@@ -5,9 +5,16 @@ import com.lsiproject.app.propertymanagementmicroservice.UpdateDTOs.RoomUpdateDT
 import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
 import com.lsiproject.app.propertymanagementmicroservice.entities.Room;
 import com.lsiproject.app.propertymanagementmicroservice.entities.RoomImage;
+import com.lsiproject.app.propertymanagementmicroservice.events.PropertyChangedEvent;
+import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
 import com.lsiproject.app.propertymanagementmicroservice.repository.RoomImageRepository;
 import com.lsiproject.app.propertymanagementmicroservice.repository.RoomRepository;
 import lombok.AllArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -27,6 +34,10 @@ public class RoomService {
     private final RoomRepository roomRepository;
     private final SupabaseStorageService storageService;
     private final RoomImageRepository imageRepository;
+    private final PropertyRepository propertyRepository;
+    private final PropertyGeoIndex propertyGeoIndex;
+    private final FeaturedListingsEngine featuredListings;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a single Room entity, uploads its associated images to Supabase,
@@ -35,6 +46,7 @@ public class RoomService {
      * @param roomDto The DTO containing room name and image indices.
      * @return The newly created Room entity.
      */
+    @Transactional
     public Room createRoom(Property property, RoomCreationDTO roomDto) throws Exception {
 
         // Ensure parent is valid
@@ -59,7 +71,13 @@ public class RoomService {
 
 
         // 3. Save Room (This saves nested images due to cascade)
-        return roomRepository.save(room);
+        Room savedRoom = roomRepository.save(room);
+
+        // 4. Keep the denormalized room count in step, in the same transaction
+        propertyRepository.adjustTotalRooms(localPropertyId, 1);
+        eventPublisher.publishEvent(new PropertyChangedEvent(localPropertyId));
+
+        return savedRoom;
     }
 
     /**
@@ -106,7 +124,36 @@ public class RoomService {
         }
 
         // 2. Delete the Room entity (JPA cascade should delete RoomImage records)
+        Property parent = room.getProperty();
+        Long propertyId = parent.getIdProperty();
+        // A loaded parent must not keep the deleted room: the room count refresh cascades to its rooms
+        if (Hibernate.isInitialized(parent) && parent.getRooms() != null && Hibernate.isInitialized(parent.getRooms())) {
+            parent.getRooms().remove(room);
+        }
         roomRepository.delete(room);
+
+        // 3. Keep the denormalized room count in step, in the same transaction
+        propertyRepository.adjustTotalRooms(propertyId, -1);
+        eventPublisher.publishEvent(new PropertyChangedEvent(propertyId));
+    }
+
+    /**
+     * Recomputes the denormalized room count of every property whose stored value drifted
+     * from the rooms table (e.g. rows created before the column existed), in one statement.
+     * Runs at startup and then on the configured schedule. The in-memory snapshots that hold the
+     * room count (geo index, featured listings) are rebuilt; the heatmap engine and the availability
+     * index do not keep it, and recommendations are hydrated from the freshly evicted entities.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${property.room-count.repair-cron:0 30 3 * * *}")
+    @Transactional
+    public void repairRoomCounts() {
+        int repaired = propertyRepository.repairTotalRooms();
+        if (repaired > 0) {
+            System.out.println("Repaired room count of " + repaired + " properties.");
+            propertyGeoIndex.rebuild();
+            featuredListings.rebuild();
+        }
     }
 
     /**
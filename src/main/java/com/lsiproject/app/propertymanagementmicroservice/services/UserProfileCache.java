@@ -0,0 +1,55 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.UserManagementDto;
+import com.lsiproject.app.propertymanagementmicroservice.openFeignClients.UserManagementMicroService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-user cache of the UserManagement profiles read by the recommendation path.
+ * Entries older than the refresh interval are still served while a background reload
+ * replaces them (stale-while-revalidate); entries older than the TTL are reloaded on access.
+ * The user service calls the invalidation endpoint when a profile changes.
+ */
+@Component
+public class UserProfileCache {
+
+    private final LoadingCache<Long, UserManagementDto> profiles;
+
+    public UserProfileCache(
+            UserManagementMicroService userManagementClient,
+            MeterRegistry meterRegistry,
+            @Value("${recommendation.user-profile-cache.max-size:10000}") long maxSize,
+            @Value("${recommendation.user-profile-cache.refresh-after:5m}") Duration refreshAfter,
+            @Value("${recommendation.user-profile-cache.ttl:30m}") Duration ttl
+    ) {
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(userManagementClient::getUserById);
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "user-profiles");
+    }
+
+    /**
+     * @return The cached profile, loaded from the user service on a miss; null if the user does not exist.
+     */
+    public UserManagementDto get(Long userId) {
+        return profiles.get(userId);
+    }
+
+    public void invalidate(Long userId) {
+        profiles.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        profiles.invalidateAll();
+    }
+}
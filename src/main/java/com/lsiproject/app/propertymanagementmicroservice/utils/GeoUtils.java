@@ -0,0 +1,166 @@
+package com.lsiproject.app.propertymanagementmicroservice.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Geographic helpers shared by the search layer: geohash encoding, cell sizes,
+ * bounding boxes and the great-circle distance used for the exact radius check.
+ */
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Length of one degree of latitude (and of longitude at the equator) in KM, on the sphere of distanceKm
+    public static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+
+    // Precision persisted on the Property row (~4.8m x 4.8m cells)
+    public static final int STORED_GEOHASH_PRECISION = 9;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoUtils() {
+    }
+
+    /**
+     * Encodes a coordinate into a geohash of the given precision (1..12 characters).
+     */
+    public static String encodeGeohash(double latitude, double longitude, int precision) {
+        double minLat = -90.0, maxLat = 90.0;
+        double minLon = -180.0, maxLon = 180.0;
+
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Height in degrees of a geohash cell of the given precision.
+     */
+    public static double geohashCellHeightDegrees(int precision) {
+        int latBits = (5 * precision) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    /**
+     * Width in degrees of a geohash cell of the given precision.
+     */
+    public static double geohashCellWidthDegrees(int precision) {
+        int lonBits = (5 * precision + 1) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+
+    /**
+     * Picks the finest geohash precision whose cells are still at least radiusKm wide and high
+     * around the given latitude, so that the cell of the center plus its 8 neighbours cover the circle.
+     * @return the precision, or 0 if even a single-character cell is too small.
+     */
+    public static int coveringGeohashPrecision(double latitude, double radiusKm) {
+        double latDelta = latitudeDelta(radiusKm);
+        double lonDelta = longitudeDelta(latitude, radiusKm);
+        for (int precision = STORED_GEOHASH_PRECISION; precision >= 1; precision--) {
+            if (geohashCellHeightDegrees(precision) >= latDelta && geohashCellWidthDegrees(precision) >= lonDelta) {
+                return precision;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the geohash of the cell containing the point plus its 8 neighbours.
+     * Together they contain every point within radiusKm when the precision comes from
+     * {@link #coveringGeohashPrecision(double, double)}.
+     */
+    public static Set<String> coveringGeohashes(double latitude, double longitude, int precision) {
+        double dLat = geohashCellHeightDegrees(precision);
+        double dLon = geohashCellWidthDegrees(precision);
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (int i = -1; i <= 1; i++) {
+            for (int j = -1; j <= 1; j++) {
+                double lat = clampLatitude(latitude + i * dLat);
+                double lon = wrapLongitude(longitude + j * dLon);
+                cells.add(encodeGeohash(lat, lon, precision));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Latitude delta (degrees) of a bounding box of the given radius: the angle the radius spans on the sphere.
+     */
+    public static double latitudeDelta(double radiusKm) {
+        return Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+    }
+
+    /**
+     * Longitude delta (degrees) of a bounding box of the given radius around the latitude,
+     * or 360 when the circle contains a pole and the box wraps the whole parallel.
+     * The circle is widest north or south of its center (asin(sin(r) / cos(lat))), not on the center's parallel.
+     */
+    public static double longitudeDelta(double latitude, double radiusKm) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        if (angularRadius >= Math.PI / 2 || Math.sin(angularRadius) >= cosLat) {
+            return 360.0;
+        }
+        return Math.toDegrees(Math.asin(Math.sin(angularRadius) / cosLat));
+    }
+
+    /**
+     * Great-circle distance between two points in KM (Haversine formula).
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static double clampLatitude(double latitude) {
+        return Math.max(-90.0, Math.min(90.0, latitude));
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude >= 180.0) {
+            return longitude - 360.0;
+        }
+        if (longitude < -180.0) {
+            return longitude + 360.0;
+        }
+        return longitude;
+    }
+}
@@ -0,0 +1,43 @@
+package com.lsiproject.app.propertymanagementmicroservice.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: the property ID, plus the distance
+ * when the listing is ordered by distance. Exchanged with clients as an opaque token.
+ */
+public record PageCursor(Double distanceInKm, Long idProperty) {
+
+    public static PageCursor afterId(Long idProperty) {
+        return new PageCursor(null, idProperty);
+    }
+
+    public static PageCursor afterDistance(double distanceInKm, Long idProperty) {
+        return new PageCursor(distanceInKm, idProperty);
+    }
+
+    public String encode() {
+        String raw = (distanceInKm != null ? Double.toString(distanceInKm) : "") + ":" + idProperty;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token Token produced by {@link #encode()}, may be null or blank for the first page.
+     * @return The decoded cursor, or null for the first page.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            Double distance = separator > 0 ? Double.valueOf(raw.substring(0, separator)) : null;
+            return new PageCursor(distance, Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor.", e);
+        }
+    }
+}
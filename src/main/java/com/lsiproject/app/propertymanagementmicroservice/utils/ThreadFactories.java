@@ -0,0 +1,31 @@
+package com.lsiproject.app.propertymanagementmicroservice.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories of the executors used for outbound calls.
+ * With spring.threads.virtual.enabled=true they create virtual threads,
+ * like the Tomcat request threads; otherwise named daemon platform threads.
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * @param prefix Thread name prefix, numbered from 1.
+     * @param virtual Whether to create virtual threads.
+     */
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        if (virtual) {
+            return Thread.ofVirtual().name(prefix, 1).factory();
+        }
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,263 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.Retryer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs real Feign calls through FeignResilience and FeignHedging against a local stub server
+ * whose answers can be delayed one request at a time.
+ */
+class FeignHedgingTest {
+
+    // Enough samples for the first hedge delay (recomputed every 16 samples once 20 are known)
+    private static final int WARM_UP = 32;
+
+    @FeignClient(name = "stub")
+    interface StubClient {
+
+        @GetMapping("/listing")
+        String read();
+
+        @PostMapping("/listing")
+        String write(@RequestBody String body);
+
+        @Idempotent
+        @PostMapping("/predict")
+        String predict(@RequestBody String body);
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final Queue<Long> delays = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private FeignResilience resilience;
+    private FeignHedging hedging;
+    private StubClient client;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::answer);
+        server.setExecutor(serverThreads);
+        server.start();
+
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", meterRegistry);
+        beans.registerSingleton("circuitBreakerRegistry", circuitBreakerRegistry);
+        // A single permit and no wait: a hedge sharing it with the slow first attempt would be rejected
+        beans.registerSingleton("bulkheadRegistry", BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build()));
+        resilience = new FeignResilience(
+                beans.getBeanProvider(CircuitBreakerRegistry.class), beans.getBeanProvider(BulkheadRegistry.class));
+        hedging = new FeignHedging(beans.getBeanProvider(MeterRegistry.class),
+                0.95, Duration.ofMillis(100), 1.0, 4, false);
+
+        StubClient feign = Feign.builder()
+                .contract(new SpringMvcContract())
+                .retryer(Retryer.NEVER_RETRY)
+                .target(StubClient.class, "http://127.0.0.1:" + server.getAddress().getPort());
+        client = (StubClient) hedging.postProcessAfterInitialization(
+                resilience.postProcessAfterInitialization(feign, "stub"), "stub");
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        hedging.shutdown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void fastCallsAreNotHedged() {
+        warmUp(client::read);
+        int before = requests.get();
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("delay-0", client.read());
+        }
+
+        assertEquals(before + 20, requests.get());
+        assertEquals(20.0, calls("read", "not_hedged"), 0.0);
+    }
+
+    @Test
+    void slowCallIsHedgedAndTheFirstAnswerWins() {
+        warmUp(client::read);
+        int before = requests.get();
+        delays.add(2_000L);
+
+        long start = System.nanoTime();
+        String answer = client.read();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("delay-0", answer);
+        // Returned without waiting for the slow first attempt to end its read
+        assertTrue(elapsedMillis < 1_000, elapsedMillis + " ms");
+        assertEquals(before + 2, requests.get());
+        assertEquals(1.0, calls("read", "hedge_won"), 0.0);
+        // The interrupt sent to the losing first attempt does not leak to the caller
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void firstAttemptThatAnswersFirstWinsWithoutWaitingForTheHedge() {
+        warmUp(client::read);
+        delays.add(400L);
+        delays.add(3_000L);
+
+        long start = System.nanoTime();
+        String answer = client.read();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("delay-400", answer);
+        assertTrue(elapsedMillis < 2_000, elapsedMillis + " ms");
+        assertEquals(1.0, calls("read", "primary_won"), 0.0);
+    }
+
+    @Test
+    void nonIdempotentMethodsAreNeverHedged() {
+        warmUp(() -> client.write("listing"));
+        int before = requests.get();
+        delays.add(500L);
+
+        assertEquals("delay-500", client.write("listing"));
+
+        assertEquals(before + 1, requests.get());
+        assertNull(meterRegistry.find("feign.hedging.calls").tag("method", "write").counter());
+    }
+
+    @Test
+    void postMarkedIdempotentIsHedged() {
+        warmUp(() -> client.predict("inputs"));
+        int before = requests.get();
+        delays.add(1_000L);
+
+        assertEquals("delay-0", client.predict("inputs"));
+
+        assertEquals(before + 2, requests.get());
+        assertEquals(1.0, calls("predict", "hedge_won"), 0.0);
+    }
+
+    @Test
+    void abandonedAttemptIsNotCountedAsABreakerFailure() {
+        StubClient failing = (StubClient) resilience.postProcessAfterInitialization(new FailingStubClient(), "failing");
+        FeignResilience.Attempt attempt = new FeignResilience.Attempt(false);
+        FeignResilience.ATTEMPT.set(attempt);
+        try {
+            assertThrows(IllegalStateException.class, failing::read);
+            attempt.abandoned = true;
+            assertThrows(IllegalStateException.class, failing::read);
+        } finally {
+            FeignResilience.ATTEMPT.remove();
+        }
+
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker("StubClient").getMetrics();
+        assertEquals(1, metrics.getNumberOfFailedCalls());
+        assertEquals(1, metrics.getNumberOfBufferedCalls());
+    }
+
+    @Test
+    void onlyGetMappingsAndMarkedMethodsAreIdempotent() throws NoSuchMethodException {
+        assertTrue(FeignHedging.isIdempotent(StubClient.class.getMethod("read")));
+        assertFalse(FeignHedging.isIdempotent(StubClient.class.getMethod("write", String.class)));
+        assertTrue(FeignHedging.isIdempotent(StubClient.class.getMethod("predict", String.class)));
+    }
+
+    /**
+     * Fails like an attempt interrupted in the middle of its call.
+     */
+    private static final class FailingStubClient implements StubClient {
+
+        @Override
+        public String read() {
+            throw new IllegalStateException("interrupted");
+        }
+
+        @Override
+        public String write(String body) {
+            return read();
+        }
+
+        @Override
+        public String predict(String body) {
+            return read();
+        }
+    }
+
+    private void warmUp(Runnable call) {
+        for (int i = 0; i < WARM_UP; i++) {
+            call.run();
+        }
+    }
+
+    private double calls(String method, String outcome) {
+        Counter counter = meterRegistry.find("feign.hedging.calls")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .counter();
+        return (counter != null) ? counter.count() : 0.0;
+    }
+
+    /**
+     * Answers "delay-N" after the next queued delay N (0 when none is queued).
+     */
+    private void answer(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Long delay = delays.poll();
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        if (delay != null) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] response = ("delay-" + (delay != null ? delay : 0)).getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import com.lsiproject.app.propertymanagementmicroservice.security.UserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routes between two embedded H2 databases, each of which knows whether it is the primary or the replica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final DataSource primary = database("primary");
+    private final DataSource replica = database("replica");
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void routeThroughALazyProxy() {
+        // No lag query: a replica is routable as long as it answers
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica), "", null, 0);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+        useRouting(routing);
+    }
+
+    @AfterEach
+    void endRequest() {
+        ReplicaRoutingDataSource.endRequest();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", node(readOnly));
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO listing VALUES (1)"));
+
+        assertEquals("primary", node(readWrite));
+        assertEquals(1, listings(primary));
+        assertEquals(0, listings(replica));
+    }
+
+    @Test
+    void statementsOutsideATransactionGoToThePrimary() {
+        assertEquals("primary", jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWithoutAHealthyReplica() {
+        // No driver accepts this URL: every connection attempt fails
+        DataSource unreachable = new DriverManagerDataSource("jdbc:unreachable:replica");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(unreachable), "", null, 0);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+        useRouting(routing);
+
+        assertEquals("primary", node(readOnly));
+    }
+
+    @Test
+    void readsAfterAWriteInTheSameRequestGoToThePrimary() {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1));
+        authenticate(7L);
+
+        preHandle(interceptor);
+        assertEquals("replica", node(readOnly));
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO listing VALUES (1)"));
+        assertEquals("primary", node(readOnly));
+        afterCompletion(interceptor);
+    }
+
+    @Test
+    void aRecentWriterReadsFromThePrimaryDuringTheWindow() {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1));
+        authenticate(7L);
+        preHandle(interceptor);
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO listing VALUES (1)"));
+        afterCompletion(interceptor);
+
+        preHandle(interceptor);
+        assertEquals("primary", node(readOnly));
+        afterCompletion(interceptor);
+
+        // Other callers keep reading from the replica
+        authenticate(8L);
+        preHandle(interceptor);
+        assertEquals("replica", node(readOnly));
+        afterCompletion(interceptor);
+    }
+
+    @Test
+    void aWriterReadsFromTheReplicaAgainOnceTheWindowExpires() throws InterruptedException {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMillis(50));
+        authenticate(7L);
+        preHandle(interceptor);
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO listing VALUES (1)"));
+        afterCompletion(interceptor);
+
+        Thread.sleep(200);
+
+        preHandle(interceptor);
+        assertEquals("replica", node(readOnly));
+        afterCompletion(interceptor);
+    }
+
+    @Test
+    void readFromPrimaryOnlyPinsTheAction() {
+        assertEquals("primary", ReplicaRoutingDataSource.readFromPrimary(() -> node(readOnly)));
+        assertEquals("replica", node(readOnly));
+    }
+
+    @Test
+    void destroyClosesTheReplicaPools() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:pool-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(pool), "", null, 0);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+
+        routing.destroy();
+
+        assertTrue(pool.isClosed());
+    }
+
+    private void useRouting(ReplicaRoutingDataSource routing) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String node(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static int listings(DataSource database) {
+        return new JdbcTemplate(database).queryForObject("SELECT COUNT(*) FROM listing", Integer.class);
+    }
+
+    private static void authenticate(Long idUser) {
+        UserPrincipal principal = new UserPrincipal(idUser, "0xwallet" + idUser, Set.of("TENANT"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static void preHandle(ReadYourWritesInterceptor interceptor) {
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object());
+    }
+
+    private static void afterCompletion(ReadYourWritesInterceptor interceptor) {
+        interceptor.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object(), null);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        jdbc.execute("CREATE TABLE listing (id BIGINT)");
+        return dataSource;
+    }
+}
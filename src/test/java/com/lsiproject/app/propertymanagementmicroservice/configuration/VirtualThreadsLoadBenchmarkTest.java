@@ -0,0 +1,316 @@
+package com.lsiproject.app.propertymanagementmicroservice.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.PricePredictionRequestDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PricePredictionResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.openFeignClients.PriceSuggestionClient;
+import com.lsiproject.app.propertymanagementmicroservice.utils.ThreadFactories;
+import feign.Feign;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 1,000 concurrent clients against an embedded Tomcat whose handler calls the price suggestion service through
+ * {@link PriceSuggestionClient}: Spring MVC contract, Jackson encoding and decoding, and the pooled Apache HttpClient 5
+ * transport, with a 100 ms answer. Runs the connector on the 200 default platform threads, then on virtual threads
+ * (what spring.threads.virtual.enabled=true does), and prints throughput, latency percentiles, the requests in flight
+ * and the pinned virtual threads reported by {@link VirtualThreadPinningMonitor}.
+ * <p>
+ * The harness stays out of the way: every client owns a keep-alive socket, the upstream serves each connection on its
+ * own thread, and a first run straight against the upstream prints the rate the harness can drive. 200 platform threads
+ * waiting 100 ms cannot exceed 2,000 req/s; virtual threads must, unless the host runs out of CPU first: the process
+ * CPU time per request gives the rate the cores can sustain, and below twice the platform ceiling the comparison is skipped.
+ * The Feign pool is sized for the test: with the production 50 connections per route, the pool and not the request
+ * threads would cap one upstream at 500 req/s.
+ * <p>
+ * Not part of the regular build: {@code mvn test -Dtest=VirtualThreadsLoadBenchmarkTest -Dbenchmark=true}
+ * (about 4,000 sockets open at once, check ulimit -n).
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadsLoadBenchmarkTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int PLATFORM_THREADS = 200;
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(100);
+    private static final byte[] PREDICTION =
+            "{\"type\":\"MONTHLY\",\"price_wei\":1200000000000000000,\"price_eth\":1.2}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ServerSocket upstream;
+    private ExecutorService upstreamThreads;
+    private CloseableHttpClient feignTransport;
+    private PriceSuggestionClient priceSuggestionClient;
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        // Answers every call after a fixed delay: one thread per connection, so it never queues requests
+        upstream = new ServerSocket(0, CLIENTS, InetAddress.getLoopbackAddress());
+        upstreamThreads = Executors.newThreadPerTaskExecutor(ThreadFactories.named("upstream-", true));
+        upstreamThreads.submit(() -> {
+            while (!upstream.isClosed()) {
+                Socket connection = upstream.accept();
+                upstreamThreads.submit(() -> serve(connection));
+            }
+            return null;
+        });
+
+        feignTransport = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(CLIENTS)
+                        .setMaxConnPerRoute(CLIENTS)
+                        .build())
+                .build();
+        // Built once, like the singleton the Spring context hands to the Feign encoder and decoder
+        HttpMessageConverters messageConverters = new HttpMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper));
+        ObjectFactory<HttpMessageConverters> converters = () -> messageConverters;
+        priceSuggestionClient = Feign.builder()
+                .client(new ApacheHttp5Client(feignTransport))
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(converters))
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(converters)))
+                .target(PriceSuggestionClient.class, "http://127.0.0.1:" + upstream.getLocalPort());
+    }
+
+    @AfterEach
+    void stopUpstream() throws IOException {
+        feignTransport.close();
+        upstream.close();
+        upstreamThreads.shutdownNow();
+    }
+
+    @Test
+    void platformAgainstVirtualRequestThreads() throws Exception {
+        Result harness = load(upstream.getLocalPort(), "/predict/monthly", CLIENTS, REQUESTS_PER_CLIENT);
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%d concurrent clients x %d requests, upstream %d ms:%n",
+                CLIENTS, REQUESTS_PER_CLIENT, UPSTREAM_LATENCY.toMillis());
+        System.out.println("  harness, no Tomcat      : " + harness);
+        System.out.println("  platform threads (" + PLATFORM_THREADS + ")  : " + platform);
+        System.out.println("  virtual threads         : " + virtual);
+
+        double platformCeiling = PLATFORM_THREADS * 1000.0 / UPSTREAM_LATENCY.toMillis();
+        int cores = Runtime.getRuntime().availableProcessors();
+        double cpuCeiling = cores * 1000.0 / virtual.cpuMillisPerRequest();
+        System.out.printf("  platform ceiling %.0f req/s, CPU ceiling on %d cores %.0f req/s%n", platformCeiling, cores, cpuCeiling);
+        assertTrue(harness.requestsPerSecond() > 2 * platformCeiling, "the harness caps the measure: " + harness);
+        assumeTrue(cpuCeiling > 2 * platformCeiling, "host CPU-bound below the platform ceiling, nothing to compare");
+        assertTrue(virtual.requestsPerSecond() > platformCeiling, "virtual threads under the platform ceiling: " + virtual);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        // Lets every client connect and stay connected; the two modes only differ by the request threads
+        factory.addConnectorCustomizers(connector -> {
+            connector.setProperty("acceptCount", String.valueOf(CLIENTS));
+            connector.setProperty("maxThreads", String.valueOf(PLATFORM_THREADS));
+            connector.setProperty("maxKeepAliveRequests", "-1");
+        });
+        if (virtualThreads) {
+            factory.addProtocolHandlerCustomizers(protocol -> protocol.setExecutor(
+                    Executors.newThreadPerTaskExecutor(ThreadFactories.named("tomcat-handler-", true))));
+        }
+        WebServer server = factory.getWebServer(context ->
+                context.addServlet("price", new PriceServlet()).addMapping("/price"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor pinning = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(20));
+        server.start();
+        try {
+            // Warm-up: connections, JIT, Tomcat's thread pool
+            load(server.getPort(), "/price", 200, 5);
+            if (virtualThreads) {
+                pinning.start();
+            }
+            return load(server.getPort(), "/price", CLIENTS, REQUESTS_PER_CLIENT)
+                    .withPinned(meterRegistry.find("jvm.threads.virtual.pinned").counters().stream()
+                            .mapToDouble(Counter::count)
+                            .sum());
+        } finally {
+            pinning.stop();
+            server.stop();
+        }
+    }
+
+    /**
+     * Closed loop: every client sends its next request on its own connection as soon as the previous one answered.
+     */
+    private Result load(int port, String path, int clientCount, int requestsPerClient) throws Exception {
+        byte[] request = ("GET " + path + " HTTP/1.1\r\nHost: 127.0.0.1:" + port + "\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        long[] latencies = new long[clientCount * requestsPerClient];
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch ready = new CountDownLatch(clientCount);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> running = new ArrayList<>();
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long start;
+        long cpuStart;
+        try (ExecutorService clientThreads = Executors.newThreadPerTaskExecutor(ThreadFactories.named("client-", true))) {
+            for (int c = 0; c < clientCount; c++) {
+                running.add(clientThreads.submit(() -> {
+                    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                        socket.setTcpNoDelay(true);
+                        InputStream in = new BufferedInputStream(socket.getInputStream());
+                        OutputStream out = socket.getOutputStream();
+                        ready.countDown();
+                        go.await();
+                        for (int i = 0; i < requestsPerClient; i++) {
+                            long sent = System.nanoTime();
+                            out.write(request);
+                            out.flush();
+                            String head = readHead(in);
+                            in.readNBytes(contentLength(head));
+                            latencies[next.getAndIncrement()] = System.nanoTime() - sent;
+                            assertTrue(head.startsWith("HTTP/1.1 200"), head);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            ready.await();
+            cpuStart = os.getProcessCpuTime();
+            start = System.nanoTime();
+            go.countDown();
+            for (Future<?> client : running) {
+                client.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long cpu = os.getProcessCpuTime() - cpuStart;
+        Arrays.sort(latencies);
+        return new Result(latencies.length * 1e9 / elapsed, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                Arrays.stream(latencies).average().orElse(0) / 1e6, cpu / 1e6 / latencies.length, 0);
+    }
+
+    /**
+     * Keep-alive HTTP/1.1 upstream: reads each request, waits, answers with a price prediction.
+     */
+    private Void serve(Socket connection) throws IOException, InterruptedException {
+        try (connection) {
+            connection.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(connection.getInputStream());
+            OutputStream out = connection.getOutputStream();
+            byte[] head = ("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: "
+                    + PREDICTION.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            while (true) {
+                String request;
+                try {
+                    request = readHead(in);
+                } catch (EOFException closed) {
+                    return null;
+                }
+                in.readNBytes(contentLength(request));
+                Thread.sleep(UPSTREAM_LATENCY.toMillis());
+                out.write(head);
+                out.write(PREDICTION);
+                out.flush();
+            }
+        }
+    }
+
+    private static String readHead(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream(256);
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            head.write(b);
+            matched = (b == (matched % 2 == 0 ? '\r' : '\n')) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+        return head.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static int contentLength(String head) {
+        for (String line : head.split("\r\n")) {
+            if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                return Integer.parseInt(line.substring("content-length:".length()).trim());
+            }
+        }
+        return 0;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+
+    private record Result(double requestsPerSecond, double p50Millis, double p99Millis, double meanMillis,
+                          double cpuMillisPerRequest, double pinned) {
+
+        Result withPinned(double pinnedEvents) {
+            return new Result(requestsPerSecond, p50Millis, p99Millis, meanMillis, cpuMillisPerRequest, pinnedEvents);
+        }
+
+        @Override
+        public String toString() {
+            // Little's law: requests in flight = throughput x mean latency
+            return String.format("%7.0f req/s, p50 %6.1f ms, p99 %6.1f ms, %5.0f in flight, %5.2f ms CPU/req, %3.0f pinned",
+                    requestsPerSecond, p50Millis, p99Millis, requestsPerSecond * meanMillis / 1000, cpuMillisPerRequest, pinned);
+        }
+    }
+
+    /**
+     * Blocks on the price suggestion call, as the price prediction endpoints do.
+     */
+    private class PriceServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            PricePredictionResponseDTO prediction = priceSuggestionClient.predictMonthlyPrice(
+                    new PricePredictionRequestDTO("Paris", "France", 2.35, 48.85, 60, 3, 3));
+            byte[] body = objectMapper.writeValueAsBytes(prediction);
+            response.setContentType("application/json");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
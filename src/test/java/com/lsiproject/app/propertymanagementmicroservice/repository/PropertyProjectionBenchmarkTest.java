@@ -0,0 +1,165 @@
+package com.lsiproject.app.propertymanagementmicroservice.repository;
+
+import com.lsiproject.app.propertymanagementmicroservice.Enums.TypeOfRental;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
+import com.lsiproject.app.propertymanagementmicroservice.searchDTOs.PropertySearchDTO;
+import com.lsiproject.app.propertymanagementmicroservice.services.PropertySpecification;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Search fallback read both ways against an embedded database: Property entities mapped afterwards (the former path)
+ * and the PropertyResponseDTO constructor projection. Prints the median time and allocation per search.
+ * <p>
+ * Not part of the regular build: {@code mvn test -Dtest=PropertyProjectionBenchmarkTest -Dbenchmark=true}
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PropertyProjectionBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int WARM_UP_ROUNDS = 10;
+    private static final int ROUNDS = 30;
+
+    /**
+     * JPA slice only: the application class also enables the Feign clients, which need the config server.
+     */
+    @Configuration
+    @EntityScan(basePackageClasses = Property.class)
+    @EnableJpaRepositories(basePackageClasses = PropertyRepository.class)
+    @Import(PropertyMapper.class)
+    static class RepositorySlice {
+    }
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyMapper propertyMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final Specification<Property> search = PropertySpecification.getPropertiesByCriteria(new PropertySearchDTO());
+
+    @BeforeEach
+    void insertCatalog() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < ROWS; i++) {
+            Property property = new Property();
+            property.setOnChainId(i + 1L);
+            property.setTitle("Listing " + i);
+            property.setCountry("France");
+            property.setCity("Paris");
+            property.setAddress(i + " rue de Rivoli");
+            property.setDescription("Two bedroom flat, close to the metro, renovated kitchen");
+            property.setLatitude(48.8 + (i % 100) * 0.001);
+            property.setLongitude(2.3 + (i / 100) * 0.001);
+            property.setSqM(60);
+            property.setTotal_Rooms(3);
+            property.setTypeOfRental(TypeOfRental.MONTHLY);
+            property.setRentAmount(1_000L + i);
+            property.setSecurityDeposit(2_000L);
+            property.setIsActive(true);
+            property.setIsAvailable(true);
+            property.setOwnerId(1L + i % 50);
+            property.setOwnerEthAddress("0x" + Long.toHexString(1L + i % 50));
+            property.setCreatedAt(now);
+            property.setUpdatedAt(now);
+            entityManager.persist(property);
+            if (i % 500 == 499) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void projectionAgainstEntityMapping() {
+        assertEquals(sorted(loadEntities()), sorted(loadProjection()));
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            loadEntities();
+            loadProjection();
+        }
+        long[][] entities = new long[2][ROUNDS];
+        long[][] projection = new long[2][ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            // Alternated so that a GC or a JIT pause does not favour one side
+            measure(this::loadEntities, entities, i);
+            measure(this::loadProjection, projection, i);
+        }
+
+        System.out.printf("DTO projection benchmark, %d rows per search:%n", ROWS);
+        System.out.printf("  entities + mapper : %6.2f ms, %8d KB allocated (median of %d)%n",
+                median(entities[0]) / 1e6, median(entities[1]) / 1024, ROUNDS);
+        System.out.printf("  DTO projection    : %6.2f ms, %8d KB allocated (median of %d)%n",
+                median(projection[0]) / 1e6, median(projection[1]) / 1024, ROUNDS);
+    }
+
+    /**
+     * Former fallback: managed entities, mapped afterwards, dirty-checked by the flush of the read-write transaction.
+     */
+    private List<PropertyResponseDTO> loadEntities() {
+        entityManager.clear();
+        List<PropertyResponseDTO> result = propertyRepository.findAll(search).stream()
+                .map(propertyMapper::toDto)
+                .toList();
+        assertEquals(ROWS, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        entityManager.flush();
+        entityManager.clear();
+        return result;
+    }
+
+    private List<PropertyResponseDTO> loadProjection() {
+        entityManager.clear();
+        List<PropertyResponseDTO> result = propertyRepository.findDtos(search, Sort.unsorted());
+        // Nothing to track, nothing to flush
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        return result;
+    }
+
+    private static void measure(Supplier<List<PropertyResponseDTO>> search, long[][] samples, int round) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        List<PropertyResponseDTO> result = search.get();
+        samples[0][round] = System.nanoTime() - start;
+        samples[1][round] = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertEquals(ROWS, result.size());
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static List<PropertyResponseDTO> sorted(List<PropertyResponseDTO> dtos) {
+        return dtos.stream().sorted(Comparator.comparing(PropertyResponseDTO::idProperty)).toList();
+    }
+}
@@ -0,0 +1,237 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.lsiproject.app.propertymanagementmicroservice.DTOs.HeatmapPointDTO;
+import com.lsiproject.app.propertymanagementmicroservice.Enums.TypeOfRental;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import com.lsiproject.app.propertymanagementmicroservice.events.PropertyChangedEvent;
+import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
+import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
+import com.lsiproject.app.propertymanagementmicroservice.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocalHeatmapEngineTest {
+
+    // Same precision-5 cell for every offset used below (~4.9 km x 4.9 km around Paris center)
+    private static final double LATITUDE = 48.8570;
+    private static final double LONGITUDE = 2.3500;
+
+    private final PropertyRepository propertyRepository = mock(PropertyRepository.class);
+    private final PropertyMapper propertyMapper = new PropertyMapper();
+    private final LocalHeatmapEngine engine =
+            new LocalHeatmapEngine(propertyRepository, propertyMapper, new int[]{4, 5}, 5);
+
+    @Test
+    void medianOfAnOddNumberOfRentsIsTheMiddleOne() {
+        load(listing(1, 300L), listing(2, 100L), listing(3, 200L));
+
+        HeatmapPointDTO cell = onlyCell(TypeOfRental.MONTHLY, 5);
+        assertEquals(3, cell.listingCount());
+        assertEquals(200.0, cell.medianPrice(), 0.0);
+        assertEquals(200.0, cell.currentAvgPrice(), 1e-9);
+    }
+
+    @Test
+    void medianOfAnEvenNumberOfRentsIsTheMeanOfTheMiddleTwo() {
+        load(listing(1, 1000L), listing(2, 100L), listing(3, 300L), listing(4, 200L));
+
+        HeatmapPointDTO cell = onlyCell(TypeOfRental.MONTHLY, 5);
+        assertEquals(250.0, cell.medianPrice(), 0.0);
+        assertEquals(400.0, cell.currentAvgPrice(), 1e-9);
+    }
+
+    @Test
+    void medianCountsRepeatedRents() {
+        load(listing(1, 100L), listing(2, 100L), listing(3, 100L), listing(4, 500L));
+
+        assertEquals(100.0, onlyCell(TypeOfRental.MONTHLY, 5).medianPrice(), 0.0);
+    }
+
+    @Test
+    void rentChangeMovesTheMedian() {
+        load(listing(1, 100L), listing(2, 200L), listing(3, 300L));
+
+        change(listing(3, 50L));
+
+        HeatmapPointDTO cell = onlyCell(TypeOfRental.MONTHLY, 5);
+        assertEquals(3, cell.listingCount());
+        assertEquals(100.0, cell.medianPrice(), 0.0);
+        assertEquals(350.0 / 3, cell.currentAvgPrice(), 1e-9);
+    }
+
+    @Test
+    void removalUpdatesTheMedianAndEmptiesTheCell() {
+        load(listing(1, 100L), listing(2, 200L));
+
+        delete(2L);
+        assertEquals(100.0, onlyCell(TypeOfRental.MONTHLY, 5).medianPrice(), 0.0);
+
+        delete(1L);
+        assertTrue(engine.heatmap(TypeOfRental.MONTHLY, 5).data().isEmpty());
+        assertTrue(engine.heatmap(TypeOfRental.MONTHLY, 4).data().isEmpty());
+    }
+
+    @Test
+    void deactivatedListingLeavesTheHeatmap() {
+        load(listing(1, 100L), listing(2, 200L));
+
+        Property delisted = listing(2, 200L);
+        delisted.setIsActive(false);
+        change(delisted);
+
+        HeatmapPointDTO cell = onlyCell(TypeOfRental.MONTHLY, 5);
+        assertEquals(1, cell.listingCount());
+        assertEquals(100.0, cell.medianPrice(), 0.0);
+    }
+
+    @Test
+    void movedListingChangesCell() {
+        load(listing(1, 100L), listing(2, 200L));
+
+        // ~30 km away: another precision-5 cell
+        Property moved = listing(2, 200L);
+        moved.setLatitude(LATITUDE + 0.3);
+        change(moved);
+
+        List<HeatmapPointDTO> cells = engine.heatmap(TypeOfRental.MONTHLY, 5).data();
+        assertEquals(2, cells.size());
+        assertEquals(1, cells.get(0).listingCount());
+        assertEquals(1, cells.get(1).listingCount());
+    }
+
+    @Test
+    void rentalTypesAreAggregatedSeparately() {
+        Property daily = listing(2, 40L);
+        daily.setTypeOfRental(TypeOfRental.DAILY);
+        load(listing(1, 1000L), daily);
+
+        assertEquals(1000.0, onlyCell(TypeOfRental.MONTHLY, 5).medianPrice(), 0.0);
+        assertEquals(40.0, onlyCell(TypeOfRental.DAILY, 5).medianPrice(), 0.0);
+    }
+
+    @Test
+    void rejectsPrecisionsThatAreNotAggregated() {
+        assertThrows(IllegalArgumentException.class, () -> engine.heatmap(TypeOfRental.MONTHLY, 6));
+    }
+
+    @Test
+    void incrementalUpdatesMatchARecomputation() {
+        Random random = new Random(11);
+        Map<Long, Property> current = new HashMap<>();
+        List<Property> initial = new ArrayList<>();
+        for (long id = 1; id <= 60; id++) {
+            Property property = randomListing(id, random);
+            current.put(id, property);
+            initial.add(property);
+        }
+        load(initial.toArray(new Property[0]));
+
+        for (int step = 0; step < 1_000; step++) {
+            long id = 1 + random.nextInt(80);
+            if (random.nextInt(5) == 0) {
+                current.remove(id);
+                delete(id);
+            } else {
+                Property property = randomListing(id, random);
+                current.put(id, property);
+                change(property);
+            }
+
+            if (step % 50 == 0) {
+                for (int precision : new int[]{4, 5}) {
+                    assertEquals(recompute(current.values(), precision), cellsOf(precision), "step " + step);
+                }
+            }
+        }
+    }
+
+    /**
+     * Count, mean and median per cell, from scratch; MONTHLY only.
+     */
+    private static Map<String, List<Double>> recompute(Iterable<Property> properties, int precision) {
+        Map<String, List<Long>> rents = new HashMap<>();
+        for (Property property : properties) {
+            if (property.getIsActive() && property.getTypeOfRental() == TypeOfRental.MONTHLY) {
+                String geohash = GeoUtils.encodeGeohash(property.getLatitude(), property.getLongitude(), precision);
+                rents.computeIfAbsent(geohash, g -> new ArrayList<>()).add(property.getRentAmount());
+            }
+        }
+        Map<String, List<Double>> cells = new HashMap<>();
+        rents.forEach((geohash, values) -> {
+            List<Long> sorted = values.stream().sorted().toList();
+            int n = sorted.size();
+            double median = (sorted.get((n - 1) / 2) + sorted.get(n / 2)) / 2.0;
+            double mean = sorted.stream().mapToLong(Long::longValue).sum() / (double) n;
+            cells.put(geohash, List.of((double) n, Math.round(mean * 1e6) / 1e6, median));
+        });
+        return cells;
+    }
+
+    private Map<String, List<Double>> cellsOf(int precision) {
+        Map<String, List<Double>> cells = new HashMap<>();
+        for (HeatmapPointDTO point : engine.heatmap(TypeOfRental.MONTHLY, precision).data()) {
+            cells.put(point.neighborhood(), List.of((double) point.listingCount(),
+                    Math.round(point.currentAvgPrice() * 1e6) / 1e6, point.medianPrice()));
+        }
+        return cells;
+    }
+
+    private Property randomListing(long id, Random random) {
+        Property property = listing(id, 100L + random.nextInt(20) * 50L);
+        // Spread over a few precision-4 and precision-5 cells
+        property.setLatitude(LATITUDE + random.nextDouble() * 0.4);
+        property.setLongitude(LONGITUDE + random.nextDouble() * 0.4);
+        property.setIsActive(random.nextInt(10) != 0);
+        property.setTypeOfRental(random.nextInt(4) == 0 ? TypeOfRental.DAILY : TypeOfRental.MONTHLY);
+        return property;
+    }
+
+    private HeatmapPointDTO onlyCell(TypeOfRental type, int precision) {
+        List<HeatmapPointDTO> points = engine.heatmap(type, precision).data();
+        assertEquals(1, points.size());
+        return points.get(0);
+    }
+
+    private void load(Property... properties) {
+        when(propertyRepository.findActiveDtosWithLocation())
+                .thenReturn(Arrays.stream(properties).map(propertyMapper::toDto).toList());
+        engine.rebuild();
+    }
+
+    private void change(Property property) {
+        when(propertyRepository.findById(property.getIdProperty())).thenReturn(Optional.of(property));
+        engine.onPropertyChanged(new PropertyChangedEvent(property.getIdProperty()));
+    }
+
+    private void delete(Long idProperty) {
+        when(propertyRepository.findById(idProperty)).thenReturn(Optional.empty());
+        engine.onPropertyChanged(new PropertyChangedEvent(idProperty));
+    }
+
+    private static Property listing(long id, long rent) {
+        Property property = new Property();
+        property.setIdProperty(id);
+        // A few meters apart, same cell
+        property.setLatitude(LATITUDE + id * 1e-5);
+        property.setLongitude(LONGITUDE);
+        property.setRentAmount(rent);
+        property.setTypeOfRental(TypeOfRental.MONTHLY);
+        property.setCity("Paris");
+        property.setIsActive(true);
+        property.setIsAvailable(true);
+        return property;
+    }
+}
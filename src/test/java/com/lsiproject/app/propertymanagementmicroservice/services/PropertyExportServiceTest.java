@@ -0,0 +1,129 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
+import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the NDJSON export against an embedded database, through the forward-only stream and the per-row detach.
+ */
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+class PropertyExportServiceTest {
+
+    // More rows than the fetch size and the flush interval
+    private static final int ROWS = 2_500;
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    /**
+     * JPA slice only: the application class also enables the Feign clients, which need the config server.
+     */
+    @Configuration
+    @EntityScan(basePackageClasses = Property.class)
+    @EnableJpaRepositories(basePackageClasses = PropertyRepository.class)
+    @Import({PropertyExportService.class, PropertyMapper.class})
+    @ImportAutoConfiguration(JacksonAutoConfiguration.class)
+    static class ExportSlice {
+    }
+
+    @Autowired
+    private PropertyExportService propertyExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void insertCatalog() {
+        for (int i = 0; i < ROWS; i++) {
+            Property property = new Property();
+            property.setOnChainId(i + 1L);
+            property.setTitle("Listing " + i);
+            property.setCity("Paris");
+            property.setIsActive(true);
+            property.setIsAvailable(true);
+            property.setCreatedAt(CUTOFF.minusDays(10));
+            if (i % 10 == 0) {
+                // Updated after the cutoff
+                property.setUpdatedAt(CUTOFF.plusDays(1));
+            } else if (i % 100 == 5) {
+                // Created after the cutoff, never updated
+                property.setCreatedAt(CUTOFF.plusDays(2));
+            }
+            entityManager.persist(property);
+            if (i % 500 == 499) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportsEveryRowOrderedById() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = propertyExportService.exportCatalog(null, out);
+
+        List<Long> ids = exportedIds(out);
+        assertEquals(ROWS, exported);
+        assertEquals(ROWS, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i));
+        }
+    }
+
+    @Test
+    void detachesEveryRowOnceWritten() throws IOException {
+        propertyExportService.exportCatalog(null, new ByteArrayOutputStream());
+
+        // The persistence context does not grow with the catalog
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void exportsOnlyRowsChangedAfterTheCutoff() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = propertyExportService.exportCatalog(CUTOFF, out);
+
+        assertEquals(ROWS / 10 + ROWS / 100, exported);
+        assertEquals(exported, exportedIds(out).size());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private List<Long> exportedIds(ByteArrayOutputStream out) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                ids.add(objectMapper.readTree(line).get("idProperty").asLong());
+            }
+        }
+        return ids;
+    }
+}
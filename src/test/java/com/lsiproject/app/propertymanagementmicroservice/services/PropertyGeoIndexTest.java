@@ -0,0 +1,206 @@
+package com.lsiproject.app.propertymanagementmicroservice.services;
+
+import com.lsiproject.app.propertymanagementmicroservice.Enums.TypeOfRental;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyDistanceResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.ResponseDTOs.PropertyResponseDTO;
+import com.lsiproject.app.propertymanagementmicroservice.entities.Property;
+import com.lsiproject.app.propertymanagementmicroservice.mappers.PropertyMapper;
+import com.lsiproject.app.propertymanagementmicroservice.repository.PropertyRepository;
+import com.lsiproject.app.propertymanagementmicroservice.searchDTOs.PropertySearchDTO;
+import com.lsiproject.app.propertymanagementmicroservice.utils.GeoUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class PropertyGeoIndexTest {
+
+    private final PropertyGeoIndex index =
+            new PropertyGeoIndex(mock(PropertyRepository.class), new PropertyMapper(), 0.05);
+    private final List<Property> listings = new ArrayList<>();
+    private long nextId = 1;
+
+    @Test
+    void returnsTheKClosestListingsClosestFirst() {
+        long far = add(48.90, 2.35, 1000L, TypeOfRental.MONTHLY);
+        long near = add(48.8570, 2.3525, 1000L, TypeOfRental.MONTHLY);
+        long middle = add(48.87, 2.36, 1000L, TypeOfRental.MONTHLY);
+
+        List<PropertyDistanceResponseDTO> results = index.nearest(search(48.8566, 2.3522, 50.0), 2);
+
+        assertEquals(List.of(near, middle), ids(results));
+        assertTrue(results.get(0).distanceInKm() < results.get(1).distanceInKm());
+        assertEquals(List.of(near, middle, far), ids(index.nearest(search(48.8566, 2.3522, 50.0), 10)));
+    }
+
+    @Test
+    void breaksDistanceTiesById() {
+        long first = add(48.86, 2.35, 1000L, TypeOfRental.MONTHLY);
+        long second = add(48.86, 2.35, 1000L, TypeOfRental.MONTHLY);
+        long third = add(48.86, 2.35, 1000L, TypeOfRental.MONTHLY);
+
+        assertEquals(List.of(first), ids(index.nearest(search(48.8566, 2.3522, 5.0), 1)));
+        assertEquals(List.of(first, second, third), ids(index.nearest(search(48.8566, 2.3522, 5.0), 3)));
+    }
+
+    @Test
+    void stopsAtTheRadius() {
+        // ~6.7 km north of the search point
+        add(48.9166, 2.3522, 1000L, TypeOfRental.MONTHLY);
+
+        assertTrue(index.nearest(search(48.8566, 2.3522, 5.0), 5).isEmpty());
+        assertEquals(1, index.nearest(search(48.8566, 2.3522, 10.0), 5).size());
+    }
+
+    @Test
+    void appliesTheSearchFilters() {
+        long cheapMonthly = add(48.857, 2.353, 500L, TypeOfRental.MONTHLY);
+        add(48.857, 2.352, 500L, TypeOfRental.DAILY);
+        add(48.857, 2.351, 5000L, TypeOfRental.MONTHLY);
+
+        PropertySearchDTO criteria = search(48.8566, 2.3522, 5.0);
+        criteria.setTypeOfRental(TypeOfRental.MONTHLY);
+        criteria.setMaxRentAmount(1000L);
+
+        assertEquals(List.of(cheapMonthly), ids(index.nearest(criteria, 5)));
+    }
+
+    @Test
+    void ignoresListingsThatCannotBeRented() {
+        Property inactive = property(48.857, 2.353, 1000L, TypeOfRental.MONTHLY);
+        inactive.setIsActive(false);
+        index.upsert(inactive);
+        Property rented = property(48.857, 2.352, 1000L, TypeOfRental.MONTHLY);
+        rented.setIsAvailable(false);
+        index.upsert(rented);
+
+        assertTrue(index.nearest(search(48.8566, 2.3522, 5.0), 5).isEmpty());
+    }
+
+    @Test
+    void dropsAListingOnceItIsRented() {
+        Property property = property(48.857, 2.353, 1000L, TypeOfRental.MONTHLY);
+        index.upsert(property);
+        property.setIsAvailable(false);
+        index.upsert(property);
+
+        assertTrue(index.nearest(search(48.8566, 2.3522, 5.0), 5).isEmpty());
+    }
+
+    @Test
+    void searchesAcrossTheAntimeridian() {
+        long east = add(0.0, -179.99, 1000L, TypeOfRental.MONTHLY);
+
+        List<PropertyDistanceResponseDTO> results = index.nearest(search(0.0, 179.99, 10.0), 1);
+
+        assertEquals(List.of(east), ids(results));
+        assertEquals(2.2, results.get(0).distanceInKm(), 0.1);
+    }
+
+    @Test
+    void searchesAcrossThePole() {
+        // ~2.2 km from the search point, on the other side of the North Pole
+        long across = add(89.99, -179.0, 1000L, TypeOfRental.MONTHLY);
+        add(89.0, 1.0, 1000L, TypeOfRental.MONTHLY);
+
+        PropertySearchDTO criteria = search(89.99, 1.0, 50.0);
+
+        assertEquals(List.of(across), index.search(criteria).stream().map(PropertyResponseDTO::idProperty).toList());
+        assertEquals(List.of(across), ids(index.nearest(criteria, 5)));
+    }
+
+    @Test
+    void nearestStaysWithinTheRadiusWhenFewListingsMatch() {
+        long near = add(48.857, 2.353, 1000L, TypeOfRental.MONTHLY);
+        add(-33.87, 151.21, 1000L, TypeOfRental.MONTHLY);
+        add(89.5, 100.0, 1000L, TypeOfRental.MONTHLY);
+
+        // Fewer matches than k: the walk ends at the radius instead of going round the world
+        assertEquals(List.of(near), ids(index.nearest(search(48.8566, 2.3522, 200.0), 10)));
+        // Every column is within the radius next to the pole, each visited once
+        assertEquals(1, index.nearest(search(89.9, 0.0, 200.0), 10).size());
+    }
+
+    @Test
+    void matchesABruteForceScan() {
+        Random random = new Random(7);
+        // A dense city and a sparse high-latitude area, where grid cells are much narrower in KM
+        for (int i = 0; i < 3_000; i++) {
+            add(48.6 + random.nextDouble() * 0.5, 2.1 + random.nextDouble() * 0.5,
+                    100L + random.nextInt(3_000), random.nextBoolean() ? TypeOfRental.MONTHLY : TypeOfRental.DAILY);
+        }
+        for (int i = 0; i < 300; i++) {
+            add(69.5 + random.nextDouble() * 1.0, 18.5 + random.nextDouble() * 2.0,
+                    100L + random.nextInt(3_000), random.nextBoolean() ? TypeOfRental.MONTHLY : TypeOfRental.DAILY);
+        }
+
+        for (int query = 0; query < 200; query++) {
+            boolean city = query % 2 == 0;
+            double latitude = city ? 48.6 + random.nextDouble() * 0.5 : 69.5 + random.nextDouble() * 1.0;
+            double longitude = city ? 2.1 + random.nextDouble() * 0.5 : 18.5 + random.nextDouble() * 2.0;
+            PropertySearchDTO criteria = search(latitude, longitude, 0.5 + random.nextDouble() * 40);
+            if (query % 3 == 0) {
+                criteria.setTypeOfRental(TypeOfRental.DAILY);
+            }
+            int k = 1 + random.nextInt(25);
+
+            assertEquals(bruteForce(criteria, k), ids(index.nearest(criteria, k)), "query " + query);
+        }
+    }
+
+    private List<Long> bruteForce(PropertySearchDTO criteria, int k) {
+        record Hit(double distanceKm, long idProperty) {
+        }
+        List<Hit> hits = new ArrayList<>();
+        for (Property property : listings) {
+            if (criteria.getTypeOfRental() != null && property.getTypeOfRental() != criteria.getTypeOfRental()) {
+                continue;
+            }
+            double distance = GeoUtils.distanceKm(criteria.getLatitude(), criteria.getLongitude(),
+                    property.getLatitude(), property.getLongitude());
+            if (distance < criteria.getRadiusInKm()) {
+                hits.add(new Hit(distance, property.getIdProperty()));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::idProperty));
+        return hits.stream().limit(k).map(Hit::idProperty).toList();
+    }
+
+    private long add(double latitude, double longitude, long rent, TypeOfRental type) {
+        Property property = property(latitude, longitude, rent, type);
+        index.upsert(property);
+        listings.add(property);
+        return property.getIdProperty();
+    }
+
+    private Property property(double latitude, double longitude, long rent, TypeOfRental type) {
+        Property property = new Property();
+        property.setIdProperty(nextId++);
+        property.setLatitude(latitude);
+        property.setLongitude(longitude);
+        property.setRentAmount(rent);
+        property.setTypeOfRental(type);
+        property.setCity("Paris");
+        property.setIsActive(true);
+        property.setIsAvailable(true);
+        return property;
+    }
+
+    private static PropertySearchDTO search(double latitude, double longitude, double radiusInKm) {
+        PropertySearchDTO criteria = new PropertySearchDTO();
+        criteria.setLatitude(latitude);
+        criteria.setLongitude(longitude);
+        criteria.setRadiusInKm(radiusInKm);
+        return criteria;
+    }
+
+    private static List<Long> ids(List<PropertyDistanceResponseDTO> results) {
+        return results.stream().map(result -> result.property().idProperty()).toList();
+    }
+}
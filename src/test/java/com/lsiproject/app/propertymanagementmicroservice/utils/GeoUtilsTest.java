@@ -0,0 +1,182 @@
+package com.lsiproject.app.propertymanagementmicroservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoUtilsTest {
+
+    @Test
+    void encodesKnownGeohashes() {
+        assertEquals("u4pruydqqvj", GeoUtils.encodeGeohash(57.64911, 10.40744, 11));
+        assertEquals("ezs42", GeoUtils.encodeGeohash(42.605, -5.603, 5));
+        assertEquals("s0000", GeoUtils.encodeGeohash(0.0, 0.0, 5));
+    }
+
+    @Test
+    void encodesTheCornersOfTheWorld() {
+        assertEquals("00000", GeoUtils.encodeGeohash(-90.0, -180.0, 5));
+        assertEquals("zzzzz", GeoUtils.encodeGeohash(90.0, 180.0, 5));
+        assertEquals("bpbpb", GeoUtils.encodeGeohash(90.0, -180.0, 5));
+        assertEquals("pbpbp", GeoUtils.encodeGeohash(-90.0, 180.0, 5));
+    }
+
+    @Test
+    void shorterGeohashIsAPrefixOfTheLongerOne() {
+        String full = GeoUtils.encodeGeohash(48.8566, 2.3522, GeoUtils.STORED_GEOHASH_PRECISION);
+        for (int precision = 1; precision < GeoUtils.STORED_GEOHASH_PRECISION; precision++) {
+            assertEquals(full.substring(0, precision), GeoUtils.encodeGeohash(48.8566, 2.3522, precision));
+        }
+    }
+
+    @Test
+    void cellSizesHalveAlternately() {
+        assertEquals(45.0, GeoUtils.geohashCellWidthDegrees(1), 0.0);
+        assertEquals(45.0, GeoUtils.geohashCellHeightDegrees(1), 0.0);
+        assertEquals(360.0 / 1024, GeoUtils.geohashCellWidthDegrees(4), 0.0);
+        assertEquals(180.0 / 1024, GeoUtils.geohashCellHeightDegrees(4), 0.0);
+        assertEquals(360.0 / 8192, GeoUtils.geohashCellWidthDegrees(5), 0.0);
+        assertEquals(180.0 / 4096, GeoUtils.geohashCellHeightDegrees(5), 0.0);
+    }
+
+    @Test
+    void coveringPrecisionShrinksAsTheRadiusGrows() {
+        int small = GeoUtils.coveringGeohashPrecision(48.8566, 1.0);
+        int large = GeoUtils.coveringGeohashPrecision(48.8566, 100.0);
+        assertTrue(small > large);
+        assertEquals(0, GeoUtils.coveringGeohashPrecision(0.0, 10_000.0));
+    }
+
+    @Test
+    void coveringPrecisionGivesUpCloseToThePoles() {
+        // Cells collapse in width near the poles: no precision is wide enough
+        assertEquals(0, GeoUtils.coveringGeohashPrecision(89.99, 5.0));
+        assertEquals(0, GeoUtils.coveringGeohashPrecision(-89.99, 5.0));
+    }
+
+    @Test
+    void coveringCellsContainEveryPointOfTheCircle() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 2_000; trial++) {
+            double latitude = -80 + random.nextDouble() * 160;
+            double longitude = -180 + random.nextDouble() * 360;
+            double radiusKm = 0.5 + random.nextDouble() * 50;
+            int precision = GeoUtils.coveringGeohashPrecision(latitude, radiusKm);
+            if (precision == 0) {
+                continue;
+            }
+            Set<String> cells = GeoUtils.coveringGeohashes(latitude, longitude, precision);
+
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double[] point = destination(latitude, longitude, bearing, radiusKm * random.nextDouble());
+            assertTrue(GeoUtils.distanceKm(latitude, longitude, point[0], point[1]) < radiusKm);
+            assertTrue(cells.contains(GeoUtils.encodeGeohash(point[0], point[1], precision)),
+                    "point " + point[0] + "," + point[1] + " not covered around " + latitude + "," + longitude);
+        }
+    }
+
+    @Test
+    void coveringCellsWrapAroundTheAntimeridian() {
+        int precision = GeoUtils.coveringGeohashPrecision(0.0, 5.0);
+        Set<String> cells = GeoUtils.coveringGeohashes(0.0, 179.999, precision);
+
+        assertTrue(cells.contains(GeoUtils.encodeGeohash(0.0, -179.999, precision)));
+        assertEquals(9, cells.size());
+    }
+
+    @Test
+    void coveringCellsAreClampedAtThePole() {
+        Set<String> cells = GeoUtils.coveringGeohashes(89.0, 0.0, 3);
+
+        // The row above the pole collapses onto the polar row
+        assertEquals(6, cells.size());
+        assertTrue(cells.contains(GeoUtils.encodeGeohash(90.0, 0.0, 3)));
+    }
+
+    @Test
+    void boundingBoxContainsPointsOnTheEdgeOfTheCircle() {
+        // Due north of a 100 km search: 99.96 km away, outside a box built with 111.32 km per degree
+        double[] north = destination(0.0, 0.0, 0.0, 99.96);
+        assertTrue(north[0] <= GeoUtils.latitudeDelta(100.0));
+
+        Random random = new Random(11);
+        for (int trial = 0; trial < 2_000; trial++) {
+            double latitude = -85 + random.nextDouble() * 170;
+            double longitude = -170 + random.nextDouble() * 340;
+            double radiusKm = 0.5 + random.nextDouble() * 500;
+            double latDelta = GeoUtils.latitudeDelta(radiusKm);
+            double lonDelta = GeoUtils.longitudeDelta(latitude, radiusKm);
+
+            double[] point = destination(latitude, longitude, random.nextDouble() * 2 * Math.PI, radiusKm * (1 - 1e-9));
+            assertTrue(Math.abs(point[0] - latitude) <= latDelta, "latitude " + point[0] + " around " + latitude);
+            if (lonDelta < 180.0) {
+                double dLon = Math.abs((point[1] - longitude + 540) % 360 - 180);
+                assertTrue(dLon <= lonDelta, "longitude " + point[1] + " around " + longitude + "," + latitude);
+            }
+        }
+    }
+
+    @Test
+    void coveringCellsContainPointsOnTheEdgeOfTheCircle() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 2_000; trial++) {
+            double latitude = -80 + random.nextDouble() * 160;
+            double longitude = -180 + random.nextDouble() * 360;
+            double radiusKm = 0.5 + random.nextDouble() * 50;
+            int precision = GeoUtils.coveringGeohashPrecision(latitude, radiusKm);
+            if (precision == 0) {
+                continue;
+            }
+            Set<String> cells = GeoUtils.coveringGeohashes(latitude, longitude, precision);
+
+            double[] point = destination(latitude, longitude, random.nextDouble() * 2 * Math.PI, radiusKm * (1 - 1e-9));
+            assertTrue(cells.contains(GeoUtils.encodeGeohash(point[0], point[1], precision)),
+                    "point " + point[0] + "," + point[1] + " not covered around " + latitude + "," + longitude);
+        }
+    }
+
+    @Test
+    void distanceIsTheGreatCircleDistance() {
+        assertEquals(0.0, GeoUtils.distanceKm(48.8566, 2.3522, 48.8566, 2.3522), 1e-9);
+        // Paris - London
+        assertEquals(343.5, GeoUtils.distanceKm(48.8566, 2.3522, 51.5074, -0.1278), 1.0);
+        // One degree across the antimeridian, not 359
+        assertEquals(111.2, GeoUtils.distanceKm(0.0, 179.5, 0.0, -179.5), 0.1);
+        // Antipodes
+        assertEquals(Math.PI * GeoUtils.EARTH_RADIUS_KM, GeoUtils.distanceKm(0.0, 0.0, 0.0, 180.0), 1e-6);
+    }
+
+    @Test
+    void longitudeDeltaWidensTowardsThePoles() {
+        assertEquals(GeoUtils.latitudeDelta(10.0), GeoUtils.longitudeDelta(0.0, 10.0), 1e-9);
+        assertTrue(GeoUtils.longitudeDelta(60.0, 10.0) > GeoUtils.longitudeDelta(0.0, 10.0));
+        assertEquals(360.0, GeoUtils.longitudeDelta(90.0, 10.0), 0.0);
+        // The circle reaches the pole: every longitude is within the radius
+        assertEquals(360.0, GeoUtils.longitudeDelta(89.5, 100.0), 0.0);
+    }
+
+    @Test
+    void oneDegreeOfLatitudeMatchesTheDistance() {
+        assertEquals(GeoUtils.distanceKm(0.0, 0.0, 1.0, 0.0), GeoUtils.KM_PER_DEGREE, 1e-9);
+        assertEquals(1.0, GeoUtils.latitudeDelta(GeoUtils.distanceKm(45.0, 3.0, 46.0, 3.0)), 1e-9);
+    }
+
+    /**
+     * Point reached from (latitude, longitude) after distanceKm along the initial bearing (radians).
+     */
+    private static double[] destination(double latitude, double longitude, double bearing, double distanceKm) {
+        double angular = distanceKm / GeoUtils.EARTH_RADIUS_KM;
+        double lat1 = Math.toRadians(latitude);
+        double lon1 = Math.toRadians(longitude);
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular)
+                + Math.cos(lat1) * Math.sin(angular) * Math.cos(bearing));
+        double lon2 = lon1 + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(lat1),
+                Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+        double wrapped = (Math.toDegrees(lon2) + 540) % 360 - 180;
+        return new double[]{Math.toDegrees(lat2), wrapped};
+    }
+}
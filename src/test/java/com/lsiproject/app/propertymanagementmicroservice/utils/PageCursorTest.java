@@ -0,0 +1,79 @@
+package com.lsiproject.app.propertymanagementmicroservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsAnIdCursor() {
+        PageCursor cursor = PageCursor.afterId(42L);
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+        assertNull(PageCursor.decode(cursor.encode()).distanceInKm());
+    }
+
+    @Test
+    void roundTripsADistanceCursor() {
+        PageCursor cursor = PageCursor.afterDistance(3.141592653589793, 7L);
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void roundTripsEdgeValues() {
+        for (PageCursor cursor : new PageCursor[]{
+                PageCursor.afterId(0L),
+                PageCursor.afterId(Long.MAX_VALUE),
+                PageCursor.afterDistance(0.0, 1L),
+                PageCursor.afterDistance(1e-12, 1L),
+                PageCursor.afterDistance(20_015.086796020572, Long.MAX_VALUE)
+        }) {
+            assertEquals(cursor, PageCursor.decode(cursor.encode()));
+        }
+    }
+
+    @Test
+    void encodesUrlSafeTokensWithoutPadding() {
+        String token = PageCursor.afterDistance(12.5, 123456789L).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void firstPageHasNoCursor() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+        assertNull(PageCursor.decode("   "));
+    }
+
+    @Test
+    void rejectsMalformedBase64() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("a"));
+    }
+
+    @Test
+    void rejectsTamperedPayloads() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token(":")));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token("1.5:abc")));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token("far:12")));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(token("1.5:99999999999999999999")));
+    }
+
+    @Test
+    void payloadWithoutSeparatorIsReadAsAnId() {
+        assertEquals(PageCursor.afterId(12L), PageCursor.decode(token("12")));
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}